@@ -2,15 +2,21 @@ plugins {
 	java
 	id("org.springframework.boot") version "4.0.0"
 	id("io.spring.dependency-management") version "1.1.7"
+	// Benchmarks JMH en src/jmh (./gradlew jmh)
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "ec.edu.ups.icc"
 version = "0.0.1-SNAPSHOT"
 description = "Demo project for Spring Boot"
 
+// Java 17 por defecto; el modo de hilos virtuales necesita 21+:
+//   ./gradlew bootRun -PjavaVersion=21 --args='--spring.profiles.active=virtual'
+val javaVersion = (findProperty("javaVersion") as String?)?.toInt() ?: 17
+
 java {
 	toolchain {
-		languageVersion = JavaLanguageVersion.of(17)
+		languageVersion = JavaLanguageVersion.of(javaVersion)
 	}
 }
 
@@ -31,19 +37,49 @@ dependencies {
 	runtimeOnly("io.jsonwebtoken:jjwt-impl:0.12.3")
 	runtimeOnly("io.jsonwebtoken:jjwt-jackson:0.12.3")
 	
-	// Jackson para manejo de fechas Java 8+ (LocalDateTime, LocalDate, etc.)
-	// NECESARIO: ErrorResponse usa LocalDateTime que requiere este módulo
+	// Jackson 2 para manejo de fechas Java 8+ (LocalDateTime, LocalDate, etc.)
+	// Solo lo usa el convertidor MessagePack; el resto de formatos es Jackson 3
 	implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
+
+	// Formatos binarios seleccionados por Accept (application/cbor, application/x-jackson-smile,
+	// application/x-msgpack) con los mismos DTOs que JSON
+	implementation("tools.jackson.dataformat:jackson-dataformat-cbor")
+	implementation("tools.jackson.dataformat:jackson-dataformat-smile")
+	// Solo existe para Jackson 2 (ver MessagePackHttpMessageConverter)
+	implementation("org.msgpack:jackson-dataformat-msgpack:0.9.8")
+	// Accesores generados con LambdaMetafactory en vez de reflexión
+	// (Jackson 3 para JSON, CBOR y Smile; Jackson 2 para MessagePack)
+	implementation("tools.jackson.module:jackson-module-blackbird")
+	implementation("com.fasterxml.jackson.module:jackson-module-blackbird")
 	
 	// Tests de seguridad
 	testImplementation("org.springframework.security:spring-security-test")
+	// Tests de integración contra PostgreSQL real (se omiten sin Docker)
+	testImplementation("org.springframework.boot:spring-boot-testcontainers")
+	testImplementation("org.testcontainers:testcontainers-junit-jupiter")
+	testImplementation("org.testcontainers:testcontainers-postgresql")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
-    runtimeOnly("org.postgresql:postgresql")
+	// implementation: el bus de invalidación usa PGConnection (LISTEN/NOTIFY)
+	implementation("org.postgresql:postgresql")
+
+	// Caché de segundo nivel de Hibernate (JCache + Caffeine) y métricas de regiones
+	implementation("org.hibernate.orm:hibernate-jcache")
+	implementation("com.github.ben-manes.caffeine:jcache")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	implementation("org.hibernate.orm:hibernate-micrometer")
 
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 
 }
 
+jmh {
+	warmupIterations.set(3)
+	iterations.set(5)
+	fork.set(1)
+	// Un solo benchmark: ./gradlew jmh -PjmhIncludes=ProductApiLoadBenchmark
+	(findProperty("jmhIncludes") as String?)?.let { includes.set(listOf(it)) }
+}
+
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
@@ -0,0 +1,53 @@
+package ec.edu.ups.icc.fundamentos01.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+
+/**
+ * DTOs de prueba compartidos por los benchmarks de serialización
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Página de productos con owner y 3 categorías cada uno
+     */
+    static List<ProductResponseDto> productPage(int size) {
+        List<ProductResponseDto> page = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int i = 1; i <= size; i++) {
+            page.add(product(i, now.minusMinutes(i)));
+        }
+        return page;
+    }
+
+    static ProductResponseDto product(long id, LocalDateTime createdAt) {
+        ProductResponseDto dto = new ProductResponseDto();
+        dto.id = id;
+        dto.name = "Producto " + id;
+        dto.price = 10.5 + id;
+        dto.description = "Descripción de prueba para el producto " + id;
+        dto.createdAt = createdAt;
+        dto.updatedAt = createdAt.plusSeconds(30);
+
+        dto.user = new ProductResponseDto.UserSummaryDto();
+        dto.user.id = id % 10;
+        dto.user.name = "Usuario " + dto.user.id;
+        dto.user.email = "usuario" + dto.user.id + "@ups.edu.ec";
+
+        dto.categories = new ArrayList<>();
+        for (long c = 1; c <= 3; c++) {
+            CategoryResponseDto category = new CategoryResponseDto();
+            category.id = c;
+            category.name = "Categoría " + c;
+            dto.categories.add(category);
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,127 @@
+package ec.edu.ups.icc.fundamentos01.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.security.config.JacksonConfig;
+import ec.edu.ups.icc.fundamentos01.security.config.MessagePackHttpMessageConverter;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Tamaño y throughput de una página de 100 productos en cada formato que
+ * se negocia por Accept, con los mappers configurados como en JacksonConfig
+ *
+ * serialize / deserialize: ops/ms por página
+ * serialize:payloadBytes: bytes generados por ms; el tamaño de cada
+ * respuesta es payloadBytes / ops (mismo valor en todas las iteraciones)
+ *
+ * Ejecutar: ./gradlew jmh -PjmhIncludes=BinaryFormatsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BinaryFormatsBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({ "json", "cbor", "smile", "msgpack" })
+    public String format;
+
+    private Codec codec;
+    private List<ProductResponseDto> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        codec = switch (format) {
+            case "json" -> jackson3(JacksonConfig.configure(JsonMapper.builder()).build());
+            case "cbor" -> jackson3(JacksonConfig.configure(CBORMapper.builder()).build());
+            case "smile" -> jackson3(JacksonConfig.configure(SmileMapper.builder()).build());
+            case "msgpack" -> messagePack(MessagePackHttpMessageConverter.mapper());
+            default -> throw new IllegalArgumentException("Formato no soportado: " + format);
+        };
+        page = BenchmarkData.productPage(PAGE_SIZE);
+        encoded = codec.write(page);
+    }
+
+    @Benchmark
+    public byte[] serialize(Payload payload) throws Exception {
+        byte[] bytes = codec.write(page);
+        payload.payloadBytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<ProductResponseDto> deserialize() throws Exception {
+        return codec.read(encoded);
+    }
+
+    /**
+     * Contador secundario de JMH; se reinicia en cada iteración
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Payload {
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+        }
+    }
+
+    private interface Codec {
+        byte[] write(List<ProductResponseDto> value) throws Exception;
+
+        List<ProductResponseDto> read(byte[] bytes) throws Exception;
+    }
+
+    private static Codec jackson3(ObjectMapper mapper) {
+        TypeReference<List<ProductResponseDto>> type = new TypeReference<>() {
+        };
+        return new Codec() {
+            @Override
+            public byte[] write(List<ProductResponseDto> value) {
+                return mapper.writeValueAsBytes(value);
+            }
+
+            @Override
+            public List<ProductResponseDto> read(byte[] bytes) {
+                return mapper.readValue(bytes, type);
+            }
+        };
+    }
+
+    private static Codec messagePack(com.fasterxml.jackson.databind.ObjectMapper mapper) {
+        com.fasterxml.jackson.core.type.TypeReference<List<ProductResponseDto>> type =
+                new com.fasterxml.jackson.core.type.TypeReference<>() {
+                };
+        return new Codec() {
+            @Override
+            public byte[] write(List<ProductResponseDto> value) throws Exception {
+                return mapper.writeValueAsBytes(value);
+            }
+
+            @Override
+            public List<ProductResponseDto> read(byte[] bytes) throws Exception {
+                return mapper.readValue(bytes, type);
+            }
+        };
+    }
+}
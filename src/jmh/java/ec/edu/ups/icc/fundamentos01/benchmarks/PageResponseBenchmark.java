@@ -0,0 +1,91 @@
+package ec.edu.ups.icc.fundamentos01.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import ec.edu.ups.icc.fundamentos01.core.dtos.PageResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.security.config.JacksonConfig;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Respuesta paginada de /api/products/paginated: PageImpl serializado tal
+ * cual (como antes de PageResponseDto, con pageable y sort anidados)
+ * frente a PageResponseDto (content, next, hasNext, total)
+ *
+ * ops/ms por página; payloadBytes / ops = bytes de cada respuesta. Con
+ * páginas chicas pesa más el envoltorio, con grandes el contenido
+ *
+ * Ejecutar: ./gradlew jmh -PjmhIncludes=PageResponseBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PageResponseBenchmark {
+
+    private static final long TOTAL = 10_000;
+
+    @Param({ "10", "100" })
+    public int size;
+
+    private JsonMapper jsonMapper;
+    private PageImpl<ProductResponseDto> page;
+    private PageResponseDto<ProductResponseDto> pageResponse;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JacksonConfig.configure(JsonMapper.builder()).build();
+        List<ProductResponseDto> content = BenchmarkData.productPage(size);
+        page = new PageImpl<>(content, PageRequest.of(1, size, Sort.by("id")), TOTAL);
+
+        // Lo que arma PageResponseDto.of(page, PageLinks.forPage(page)) en el controlador
+        pageResponse = new PageResponseDto<>();
+        pageResponse.content = content;
+        pageResponse.next = "http://localhost:8080/api/products/paginated?page=2&size=" + size;
+        pageResponse.hasNext = page.hasNext();
+        pageResponse.total = page.getTotalElements();
+    }
+
+    @Benchmark
+    public byte[] pageImpl(Payload payload) {
+        return payload.count(jsonMapper.writeValueAsBytes(page));
+    }
+
+    @Benchmark
+    public byte[] pageResponseDto(Payload payload) {
+        return payload.count(jsonMapper.writeValueAsBytes(pageResponse));
+    }
+
+    /**
+     * Contador secundario de JMH; se reinicia en cada iteración
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Payload {
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+        }
+
+        byte[] count(byte[] bytes) {
+            payloadBytes += bytes.length;
+            return bytes;
+        }
+    }
+}
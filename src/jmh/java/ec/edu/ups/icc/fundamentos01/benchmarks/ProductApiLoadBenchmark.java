@@ -0,0 +1,120 @@
+package ec.edu.ups.icc.fundamentos01.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Prueba de carga HTTP contra una instancia ya levantada, para comparar
+ * hilos de plataforma con hilos virtuales con el mismo pool de Hikari:
+ *
+ *   1. ./gradlew bootRun                                   (Tomcat, 200 hilos)
+ *   2. ./gradlew bootRun -PjavaVersion=21 --args='--spring.profiles.active=virtual'
+ *   Con cada una: ./gradlew jmh -PjmhIncludes=ProductApiLoadBenchmark
+ *
+ * 400 clientes concurrentes (más que los hilos de Tomcat). Mode.SampleTime
+ * imprime p0.99 por endpoint y Throughput las peticiones por segundo.
+ * getById / search: JDBC; login: BCrypt + emisión del JWT. Para medir
+ * solo el modelo de hilos conviene products.search-cache.enabled=false.
+ *
+ * Variables: LOADTEST_URL (http://localhost:8080), LOADTEST_EMAIL,
+ * LOADTEST_PASSWORD (admin del DataInitializer), LOADTEST_MAX_ID (1000)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+public class ProductApiLoadBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String baseUrl;
+    private String loginBody;
+    private long maxId;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        baseUrl = env("LOADTEST_URL", "http://localhost:8080");
+        maxId = Long.parseLong(env("LOADTEST_MAX_ID", "1000"));
+        loginBody = objectMapper.writeValueAsString(Map.of(
+                "email", env("LOADTEST_EMAIL", "admin@ups.edu.ec"),
+                "password", env("LOADTEST_PASSWORD", "admin123")));
+        clientExecutor = Executors.newCachedThreadPool();
+        client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        JsonNode auth = objectMapper.readTree(postLogin().body());
+        token = auth.get("token").asText();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int getById() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(1, maxId + 1);
+        return send(authorized("/api/products/" + id).GET().build()).statusCode();
+    }
+
+    @Benchmark
+    public int search() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(0, 5);
+        return send(authorized("/api/products/search?minPrice=10&maxPrice=500&page=" + page + "&size=20")
+                .GET().build()).statusCode();
+    }
+
+    @Benchmark
+    public int login() throws Exception {
+        return postLogin().statusCode();
+    }
+
+    private HttpResponse<String> postLogin() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(loginBody))
+                .build());
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
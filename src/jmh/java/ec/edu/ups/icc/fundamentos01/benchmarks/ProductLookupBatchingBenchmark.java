@@ -0,0 +1,120 @@
+package ec.edu.ups.icc.fundamentos01.benchmarks;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import ec.edu.ups.icc.fundamentos01.core.concurrency.MicroBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Búsquedas por ID concurrentes (64 hilos, IDs distintos) contra una BD
+ * simulada: cada consulta cuesta 300 µs fijos + 5 µs por ID
+ * direct: una consulta por búsqueda (findById actual)
+ * batched: MicroBatcher con la ventana / tamaño de products.batching.*
+ *
+ * Resultados: ops/ms = búsquedas atendidas, avgt = latencia por búsqueda
+ * (incluye la ventana) y el contador secundario queries = consultas/ms
+ * que llegan a la BD (direct: una por búsqueda; batched: una por lote)
+ *
+ * Ejecutar: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class ProductLookupBatchingBenchmark {
+
+    private static final long QUERY_NANOS = 300_000;
+    private static final long PER_KEY_NANOS = 5_000;
+
+    // products.batching.window en ms (0.5 = 500us)
+    @Param({ "0.5", "2" })
+    public double windowMillis;
+
+    @Param({ "16", "64" })
+    public int maxSize;
+
+    private ExecutorService loadExecutor;
+    private MicroBatcher<Long, Integer> batcher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        loadExecutor = Executors.newCachedThreadPool();
+        batcher = new MicroBatcher<>("benchmark", this::query, loadExecutor,
+                Duration.ofNanos(Math.round(windowMillis * 1_000_000)), maxSize, Duration.ofSeconds(2),
+                new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        batcher.close();
+        loadExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int direct(Queries queries) {
+        return queries.count(query(Set.of(randomId())).values().iterator().next());
+    }
+
+    @Benchmark
+    public int batched(Queries queries) {
+        return queries.count(batcher.load(randomId()));
+    }
+
+    /**
+     * Contador secundario de JMH (por hilo, se reinicia en cada iteración).
+     * Cada búsqueda suma 1 / tamaño de su lote: la suma de todos los hilos
+     * es el número de consultas a la BD
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Queries {
+        public double queries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            queries = 0;
+        }
+
+        int count(int batchSize) {
+            queries += 1.0 / batchSize;
+            return batchSize;
+        }
+    }
+
+    /**
+     * Cada fila trae el tamaño del lote que la cargó
+     */
+    private Map<Long, Integer> query(Set<Long> ids) {
+        LockSupport.parkNanos(QUERY_NANOS + PER_KEY_NANOS * ids.size());
+        Map<Long, Integer> rows = new HashMap<>();
+        for (Long id : ids) {
+            rows.put(id, ids.size());
+        }
+        return rows;
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, 1_000_000);
+    }
+}
@@ -0,0 +1,61 @@
+package ec.edu.ups.icc.fundamentos01.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.security.config.JacksonConfig;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serialización de una página de 100 productos (owner + 3 categorías)
+ * con el JsonMapper de Jackson 3, el del convertidor JSON de Spring MVC
+ * reflection: sin módulos (acceso por reflexión)
+ * configured: con el customizer de JacksonConfig (BlackbirdModule)
+ *
+ * Ejecutar: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProductSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private JsonMapper reflectionMapper;
+    private JsonMapper configuredMapper;
+    private List<ProductResponseDto> page;
+
+    @Setup
+    public void setUp() {
+        reflectionMapper = JsonMapper.builder()
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .build();
+
+        // Mismo camino que Spring Boot: builder + JsonMapperBuilderCustomizer
+        JsonMapper.Builder builder = JsonMapper.builder();
+        new JacksonConfig().jsonMapperCustomizer().customize(builder);
+        configuredMapper = builder.build();
+
+        page = BenchmarkData.productPage(PAGE_SIZE);
+    }
+
+    @Benchmark
+    public byte[] reflection() throws Exception {
+        return reflectionMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] configured() throws Exception {
+        return configuredMapper.writeValueAsBytes(page);
+    }
+}
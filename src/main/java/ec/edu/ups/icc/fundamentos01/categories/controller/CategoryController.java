@@ -4,11 +4,22 @@ import org.springframework.web.bind.annotation.RestController;
 
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryCreateDto;
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
+import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryRetagDto;
 import ec.edu.ups.icc.fundamentos01.categories.service.CategoryService;
+import ec.edu.ups.icc.fundamentos01.core.web.CompressedResponseCache;
+import ec.edu.ups.icc.fundamentos01.core.web.JsonNegotiation;
+import ec.edu.ups.icc.fundamentos01.products.dtos.BulkUpdateResultDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductStatsDto;
+import ec.edu.ups.icc.fundamentos01.products.services.CatalogVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -19,9 +30,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 public class CategoryController {
 
     private CategoryService categoryService;
+    private CompressedResponseCache compressedCache;
+    private CatalogVersion catalogVersion;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CompressedResponseCache compressedCache,
+            CatalogVersion catalogVersion) {
         this.categoryService = categoryService;
+        this.compressedCache = compressedCache;
+        this.catalogVersion = catalogVersion;
 
     }
 
@@ -32,10 +48,50 @@ public class CategoryController {
         return ResponseEntity.ok("Categoría creada exitosamente");
     }
 
+    // Cambia muy poco: en JSON se sirve el gzip cacheado mientras no
+    // cambie la versión del catálogo (sin consultar)
     @GetMapping()
-    public ResponseEntity<List<CategoryResponseDto>> getAll() {
+    public ResponseEntity<?> getAll(HttpServletRequest request) {
 
-        return ResponseEntity.ok(categoryService.findAll());
+        if (JsonNegotiation.prefersJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            return compressedCache.serve("categories", catalogVersion.current(),
+                    () -> CompressedResponseCache.Content.of(categoryService.findAll()), request);
+        }
+        List<CategoryResponseDto> categories = categoryService.findAll();
+        return ResponseEntity.ok(categories);
+    }
+
+    // Estadísticas de precios por categoría (desde la tabla resumen)
+    @GetMapping("/stats")
+    public ResponseEntity<List<ProductStatsDto>> getStats() {
+
+        return ResponseEntity.ok(categoryService.getStats());
+    }
+
+    // ============== RE-ETIQUETADO MASIVO (productIds o filtro) ==============
+
+    @PostMapping("/{id}/products/attach")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateResultDto> attachProducts(@PathVariable("id") Long id,
+            @Valid @RequestBody CategoryRetagDto dto) {
+
+        return ResponseEntity.ok(categoryService.attachProducts(id, dto));
+    }
+
+    @PostMapping("/{id}/products/detach")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateResultDto> detachProducts(@PathVariable("id") Long id,
+            @Valid @RequestBody CategoryRetagDto dto) {
+
+        return ResponseEntity.ok(categoryService.detachProducts(id, dto));
+    }
+
+    @PostMapping("/{id}/products/move")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkUpdateResultDto> moveProducts(@PathVariable("id") Long id,
+            @Valid @RequestBody CategoryRetagDto dto) {
+
+        return ResponseEntity.ok(categoryService.moveProducts(id, dto));
     }
 
 }
@@ -0,0 +1,39 @@
+package ec.edu.ups.icc.fundamentos01.categories.dtos;
+
+import java.util.Set;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public class CategoryRetagDto {
+
+    // IDs explícitos de productos (si se envían, se ignoran los filtros)
+    public Set<Long> productIds;
+
+    // ============== FILTRO (alternativa a productIds) ==============
+
+    public String name;
+
+    public Long ownerId;
+
+    @PositiveOrZero
+    public Double minPrice;
+
+    @PositiveOrZero
+    public Double maxPrice;
+
+    // Productos que ya pertenecen a esta categoría
+    public Long inCategoryId;
+
+    // ============== MOVE ==============
+
+    // Categoría destino (solo para /move)
+    public Long targetCategoryId;
+
+    // Cantidad de productos por sentencia
+    @Min(100)
+    @Max(10000)
+    public Integer chunkSize;
+
+}
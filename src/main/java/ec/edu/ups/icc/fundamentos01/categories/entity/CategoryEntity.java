@@ -4,15 +4,25 @@ import java.util.HashSet;
 import java.util.Set;
 
 import ec.edu.ups.icc.fundamentos01.core.entities.BaseModel;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 
+/**
+ * Entidad de referencia: cambia muy poco, por eso se guarda en la caché de
+ * segundo nivel en modo solo lectura
+ */
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "categories")
 public class CategoryEntity extends BaseModel {
 
     @Column(nullable = false, unique = true, length = 120)
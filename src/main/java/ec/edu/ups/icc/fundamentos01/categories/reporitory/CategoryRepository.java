@@ -1,10 +1,20 @@
 package ec.edu.ups.icc.fundamentos01.categories.reporitory;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
 import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
 
@@ -19,7 +29,122 @@ public interface CategoryRepository extends JpaRepository<CategoryEntity, Long>
 
         /**
          * Busca categoría por nombre (case insensitive)
+         * El resultado se guarda en la caché de consultas
          */
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
         Optional<CategoryEntity> findByNameIgnoreCase(String name);
 
+        // ============== MÉTODOS CRUD CON CACHÉ DE CONSULTAS ==============
+
+        @Override
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+        List<CategoryEntity> findAll();
+
+        /**
+         * Usado al crear/actualizar productos: las entidades se resuelven
+         * desde la caché de segundo nivel en lugar de ir a la BD
+         */
+        @Override
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+        List<CategoryEntity> findAllById(Iterable<Long> ids);
+
+
+        // ============== OPERACIONES MASIVAS SOBRE product_categories ==============
+        // SQL nativo set-based, una transacción por bloque. El hint de
+        // native spaces evita que Hibernate invalide toda la caché de segundo
+        // nivel (solo se tocan la tabla intermedia y products.updated_at).
+
+        String PRODUCT_FILTER = "(CAST(:ownerId AS bigint) IS NULL OR p.user_id = :ownerId) " +
+                        "AND (CAST(:minPrice AS double precision) IS NULL OR p.price >= :minPrice) " +
+                        "AND (CAST(:maxPrice AS double precision) IS NULL OR p.price <= :maxPrice) " +
+                        "AND (CAST(:name AS text) IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', CAST(:name AS text), '%'))) " +
+                        "AND (CAST(:inCategoryId AS bigint) IS NULL OR EXISTS (SELECT 1 FROM product_categories x " +
+                        "WHERE x.product_id = p.id AND x.category_id = :inCategoryId)) ";
+
+        // Cada producto afectado cambia su updatedAt: así lo ve la
+        // sincronización incremental (/api/products/sync). El conteo
+        // devuelto es el de productos tocados.
+        String TOUCH_CHANGED = "UPDATE products SET updated_at = LOCALTIMESTAMP " +
+                        "WHERE id IN (SELECT product_id FROM changed)";
+
+        @Transactional
+        @Modifying
+        @QueryHints({ @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_categories"),
+                        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "products") })
+        @Query(value = "WITH changed AS (INSERT INTO product_categories (product_id, category_id) " +
+                        "SELECT p.id, :categoryId FROM products p WHERE p.id IN (:productIds) " +
+                        "ON CONFLICT DO NOTHING RETURNING product_id) " + TOUCH_CHANGED, nativeQuery = true)
+        int attachProducts(@Param("categoryId") Long categoryId, @Param("productIds") Collection<Long> productIds);
+
+        @Transactional
+        @Modifying
+        @QueryHints({ @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_categories"),
+                        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "products") })
+        @Query(value = "WITH changed AS (DELETE FROM product_categories " +
+                        "WHERE category_id = :categoryId AND product_id IN (:productIds) RETURNING product_id) " +
+                        TOUCH_CHANGED, nativeQuery = true)
+        int detachProducts(@Param("categoryId") Long categoryId, @Param("productIds") Collection<Long> productIds);
+
+        /**
+         * Mueve en una sola sentencia: borra la fila de la categoría origen e
+         * inserta la de destino. Devuelve los productos movidos (también los
+         * que ya tenían la categoría destino: igual perdieron la de origen).
+         */
+        @Transactional
+        @Modifying
+        @QueryHints({ @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_categories"),
+                        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "products") })
+        @Query(value = "WITH changed AS (DELETE FROM product_categories " +
+                        "WHERE category_id = :categoryId AND product_id IN (:productIds) RETURNING product_id), " +
+                        "inserted AS (INSERT INTO product_categories (product_id, category_id) " +
+                        "SELECT product_id, :targetId FROM changed ON CONFLICT DO NOTHING) " +
+                        TOUCH_CHANGED, nativeQuery = true)
+        int moveProducts(@Param("categoryId") Long categoryId, @Param("targetId") Long targetId,
+                        @Param("productIds") Collection<Long> productIds);
+
+        @Transactional
+        @Modifying
+        @QueryHints({ @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_categories"),
+                        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "products") })
+        @Query(value = "WITH changed AS (INSERT INTO product_categories (product_id, category_id) " +
+                        "SELECT p.id, :categoryId FROM products p " +
+                        "WHERE p.id BETWEEN :fromId AND :toId AND " + PRODUCT_FILTER +
+                        "ON CONFLICT DO NOTHING RETURNING product_id) " + TOUCH_CHANGED, nativeQuery = true)
+        int attachByFilter(@Param("categoryId") Long categoryId,
+                        @Param("fromId") Long fromId, @Param("toId") Long toId,
+                        @Param("name") String name, @Param("ownerId") Long ownerId,
+                        @Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice,
+                        @Param("inCategoryId") Long inCategoryId);
+
+        @Transactional
+        @Modifying
+        @QueryHints({ @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_categories"),
+                        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "products") })
+        @Query(value = "WITH changed AS (DELETE FROM product_categories pc USING products p " +
+                        "WHERE pc.product_id = p.id AND pc.category_id = :categoryId " +
+                        "AND p.id BETWEEN :fromId AND :toId AND " + PRODUCT_FILTER +
+                        "RETURNING pc.product_id) " + TOUCH_CHANGED, nativeQuery = true)
+        int detachByFilter(@Param("categoryId") Long categoryId,
+                        @Param("fromId") Long fromId, @Param("toId") Long toId,
+                        @Param("name") String name, @Param("ownerId") Long ownerId,
+                        @Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice,
+                        @Param("inCategoryId") Long inCategoryId);
+
+        @Transactional
+        @Modifying
+        @QueryHints({ @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_categories"),
+                        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "products") })
+        @Query(value = "WITH changed AS (DELETE FROM product_categories pc USING products p " +
+                        "WHERE pc.product_id = p.id AND pc.category_id = :categoryId " +
+                        "AND p.id BETWEEN :fromId AND :toId AND " + PRODUCT_FILTER +
+                        "RETURNING pc.product_id), " +
+                        "inserted AS (INSERT INTO product_categories (product_id, category_id) " +
+                        "SELECT product_id, :targetId FROM changed ON CONFLICT DO NOTHING) " +
+                        TOUCH_CHANGED, nativeQuery = true)
+        int moveByFilter(@Param("categoryId") Long categoryId, @Param("targetId") Long targetId,
+                        @Param("fromId") Long fromId, @Param("toId") Long toId,
+                        @Param("name") String name, @Param("ownerId") Long ownerId,
+                        @Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice,
+                        @Param("inCategoryId") Long inCategoryId);
+
 }
@@ -4,6 +4,9 @@ import java.util.List;
 
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryCreateDto;
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
+import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryRetagDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.BulkUpdateResultDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductStatsDto;
 
 public interface CategoryService {
 
@@ -11,4 +14,12 @@ public interface CategoryService {
 
     void save(CategoryCreateDto createDto);
 
+    List<ProductStatsDto> getStats();
+
+    BulkUpdateResultDto attachProducts(Long categoryId, CategoryRetagDto dto);
+
+    BulkUpdateResultDto detachProducts(Long categoryId, CategoryRetagDto dto);
+
+    BulkUpdateResultDto moveProducts(Long categoryId, CategoryRetagDto dto);
+
 }
@@ -1,22 +1,54 @@
 package ec.edu.ups.icc.fundamentos01.categories.service;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryCreateDto;
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
+import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryRetagDto;
 import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
 import ec.edu.ups.icc.fundamentos01.categories.mappers.CategoryMapper;
 import ec.edu.ups.icc.fundamentos01.categories.reporitory.CategoryRepository;
+import ec.edu.ups.icc.fundamentos01.core.invalidation.CachedEntityType;
+import ec.edu.ups.icc.fundamentos01.core.invalidation.InvalidationBus;
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.NotFoundException;
+import ec.edu.ups.icc.fundamentos01.products.dtos.BulkUpdateResultDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductStatsDto;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductChangeType;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import ec.edu.ups.icc.fundamentos01.products.services.ProductChangedEvent;
+import ec.edu.ups.icc.fundamentos01.products.services.ProductJsonCache;
+import ec.edu.ups.icc.fundamentos01.products.services.CatalogVersion;
+import ec.edu.ups.icc.fundamentos01.products.services.ProductStatsService;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
 
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+
     private CategoryRepository categoryRepository;
+    private ProductRepository productRepository;
+    private ProductStatsService statsService;
+    private ProductJsonCache productJsonCache;
+    private ApplicationEventPublisher eventPublisher;
+    private CatalogVersion catalogVersion;
+    private InvalidationBus invalidationBus;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, ProductRepository productRepository,
+            ProductStatsService statsService, ProductJsonCache productJsonCache,
+            ApplicationEventPublisher eventPublisher, CatalogVersion catalogVersion,
+            InvalidationBus invalidationBus) {
         this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.statsService = statsService;
+        this.productJsonCache = productJsonCache;
+        this.eventPublisher = eventPublisher;
+        this.catalogVersion = catalogVersion;
+        this.invalidationBus = invalidationBus;
     }
 
     @Override
@@ -30,8 +62,122 @@ public class CategoryServiceImpl implements CategoryService {
         var categoryEntity = new CategoryEntity();
         categoryEntity.setName(createDto.name);
         categoryEntity.setDescription(createDto.description);
-        categoryRepository.save(categoryEntity);
+        CategoryEntity saved = categoryRepository.save(categoryEntity);
+        catalogVersion.increment();
+        invalidationBus.publish(CachedEntityType.CATEGORY, saved.getId());
+
+    }
+
+    @Override
+    public List<ProductStatsDto> getStats() {
+        return statsService.getCategoryStats();
+    }
+
+    // ================== RE-ETIQUETADO MASIVO ==================
+
+    @Override
+    public BulkUpdateResultDto attachProducts(Long categoryId, CategoryRetagDto dto) {
+        validateRetag(categoryId, dto);
+        return retag(dto,
+                ids -> categoryRepository.attachProducts(categoryId, ids),
+                (from, to) -> categoryRepository.attachByFilter(categoryId, from, to,
+                        dto.name, dto.ownerId, dto.minPrice, dto.maxPrice, dto.inCategoryId));
+    }
+
+    @Override
+    public BulkUpdateResultDto detachProducts(Long categoryId, CategoryRetagDto dto) {
+        validateRetag(categoryId, dto);
+        return retag(dto,
+                ids -> categoryRepository.detachProducts(categoryId, ids),
+                (from, to) -> categoryRepository.detachByFilter(categoryId, from, to,
+                        dto.name, dto.ownerId, dto.minPrice, dto.maxPrice, dto.inCategoryId));
+    }
+
+    @Override
+    public BulkUpdateResultDto moveProducts(Long categoryId, CategoryRetagDto dto) {
+        validateRetag(categoryId, dto);
+        if (dto.targetCategoryId == null) {
+            throw new BadRequestException("Debe indicar la categoría destino (targetCategoryId)");
+        }
+        if (dto.targetCategoryId.equals(categoryId)) {
+            throw new BadRequestException("La categoría destino debe ser distinta a la de origen");
+        }
+        if (!categoryRepository.existsById(dto.targetCategoryId)) {
+            throw new NotFoundException("Categoría no encontrada con ID: " + dto.targetCategoryId);
+        }
+        return retag(dto,
+                ids -> categoryRepository.moveProducts(categoryId, dto.targetCategoryId, ids),
+                (from, to) -> categoryRepository.moveByFilter(categoryId, dto.targetCategoryId, from, to,
+                        dto.name, dto.ownerId, dto.minPrice, dto.maxPrice, dto.inCategoryId));
+    }
+
+    /**
+     * Ejecuta la operación en bloques acotados: por sublistas de IDs si se
+     * enviaron productIds, o por rangos de ID de productos si se usa filtro.
+     * Cada bloque es una transacción corta (ver CategoryRepository).
+     */
+    private BulkUpdateResultDto retag(CategoryRetagDto dto, IdsChunk byIds, RangeChunk byRange) {
+        BulkUpdateResultDto result = runChunks(dto, byIds, byRange);
+        // Las estadísticas por categoría se recalculan con un solo GROUP BY
+        if (result.affected > 0) {
+            statsService.rebuildCategories();
+            // Las sentencias nativas no pasan por el contexto de persistencia:
+            // se descartan los fragmentos JSON en vez de esperar a la nueva versión
+            productJsonCache.invalidateAll();
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangeType.BULK_UPDATED, null));
+        }
+        return result;
+    }
+
+    private BulkUpdateResultDto runChunks(CategoryRetagDto dto, IdsChunk byIds, RangeChunk byRange) {
+        int chunkSize = dto.chunkSize != null ? dto.chunkSize : DEFAULT_CHUNK_SIZE;
+        long affected = 0;
+        int chunks = 0;
+
+        if (dto.productIds != null && !dto.productIds.isEmpty()) {
+            List<Long> ids = new ArrayList<>(dto.productIds);
+            for (int i = 0; i < ids.size(); i += chunkSize) {
+                affected += byIds.apply(ids.subList(i, Math.min(i + chunkSize, ids.size())));
+                chunks++;
+            }
+            return new BulkUpdateResultDto(affected, chunks);
+        }
+
+        Long minId = productRepository.findMinId();
+        Long maxId = productRepository.findMaxId();
+        if (minId == null) {
+            return new BulkUpdateResultDto(0, 0);
+        }
+        for (long from = minId; from <= maxId; from += chunkSize) {
+            affected += byRange.apply(from, Math.min(from + chunkSize - 1, maxId));
+            chunks++;
+        }
+        return new BulkUpdateResultDto(affected, chunks);
+    }
+
+    private void validateRetag(Long categoryId, CategoryRetagDto dto) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new NotFoundException("Categoría no encontrada con ID: " + categoryId);
+        }
+        boolean hasIds = dto.productIds != null && !dto.productIds.isEmpty();
+        boolean hasFilter = dto.name != null || dto.ownerId != null || dto.minPrice != null
+                || dto.maxPrice != null || dto.inCategoryId != null;
+        if (!hasIds && !hasFilter) {
+            throw new BadRequestException("Debe indicar productIds o al menos un filtro");
+        }
+        if (dto.minPrice != null && dto.maxPrice != null && dto.maxPrice < dto.minPrice) {
+            throw new BadRequestException("El precio máximo debe ser mayor al mínimo");
+        }
+    }
+
+    @FunctionalInterface
+    private interface IdsChunk {
+        int apply(List<Long> ids);
+    }
 
+    @FunctionalInterface
+    private interface RangeChunk {
+        int apply(long fromId, long toId);
     }
 
 }
@@ -0,0 +1,148 @@
+package ec.edu.ups.icc.fundamentos01.core.concurrency;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Agrupa búsquedas por clave de distintas peticiones en una sola carga
+ * (estilo DataLoader): las claves que llegan dentro de la ventana se
+ * resuelven juntas con batchLoader (p. ej. un WHERE id IN (...)).
+ *
+ * El lote se despacha al cumplirse la ventana (en loadExecutor) o al
+ * llegar a maxBatchSize (en el hilo que lo completó, que igual iba a
+ * esperar). Ventana más larga / lotes más grandes: menos consultas por
+ * segundo a cambio de latencia. Si el lote no responde en maxWait el
+ * llamador carga su clave por separado.
+ *
+ * Métricas: microbatch.size{name} y microbatch.timeouts{name}
+ */
+public class MicroBatcher<K, V> implements AutoCloseable {
+
+    private final Function<Set<K>, Map<K, V>> batchLoader;
+    private final Executor loadExecutor;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long maxWaitMillis;
+    private final ScheduledExecutorService timer;
+    private final DistributionSummary batchSizes;
+    private final Counter timeouts;
+
+    private Batch<K, V> pending; // protegido por this
+
+    public MicroBatcher(String name, Function<Set<K>, Map<K, V>> batchLoader, Executor loadExecutor,
+            Duration window, int maxBatchSize, Duration maxWait, MeterRegistry meterRegistry) {
+        this.batchLoader = batchLoader;
+        this.loadExecutor = loadExecutor;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMillis = maxWait.toMillis();
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "microbatch-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.timer = scheduler;
+
+        this.batchSizes = DistributionSummary.builder("microbatch.size")
+                .tag("name", name)
+                .description("Claves resueltas por carga")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("microbatch.timeouts")
+                .tag("name", name)
+                .description("Llamadores que cargaron por separado tras esperar maxWait")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Valor de la clave o null si el loader no la devolvió
+     */
+    public V load(K key) {
+        CompletableFuture<V> result;
+        Batch<K, V> full = null;
+        synchronized (this) {
+            if (pending == null) {
+                Batch<K, V> batch = new Batch<>();
+                batch.timer = timer.schedule(() -> flushOnWindow(batch), windowNanos, TimeUnit.NANOSECONDS);
+                pending = batch;
+            }
+            result = pending.waiters.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.waiters.size() >= maxBatchSize) {
+                full = pending;
+                full.timer.cancel(false);
+                pending = null;
+            }
+        }
+        if (full != null) {
+            run(full);
+        }
+        return await(key, result);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    private V await(K key, CompletableFuture<V> result) {
+        try {
+            return result.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            return batchLoader.apply(Set.of(key)).get(key);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando una carga por lotes", ex);
+        }
+    }
+
+    private void flushOnWindow(Batch<K, V> batch) {
+        synchronized (this) {
+            // Ya se despachó por tamaño
+            if (pending != batch) {
+                return;
+            }
+            pending = null;
+        }
+        loadExecutor.execute(() -> run(batch));
+    }
+
+    private void run(Batch<K, V> batch) {
+        batchSizes.record(batch.waiters.size());
+        try {
+            Map<K, V> values = batchLoader.apply(batch.waiters.keySet());
+            batch.waiters.forEach((key, waiter) -> waiter.complete(values.get(key)));
+        } catch (RuntimeException | Error ex) {
+            batch.waiters.values().forEach(waiter -> waiter.completeExceptionally(ex));
+        }
+    }
+
+    private static final class Batch<K, V> {
+        private final Map<K, CompletableFuture<V>> waiters = new LinkedHashMap<>();
+        private ScheduledFuture<?> timer;
+    }
+}
@@ -0,0 +1,96 @@
+package ec.edu.ups.icc.fundamentos01.core.concurrency;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Agrupa cargas concurrentes con la misma clave: el primer llamador
+ * (leader) ejecuta la carga y los que llegan mientras está en curso
+ * esperan su resultado en lugar de repetir la consulta.
+ *
+ * No es una caché: al terminar la carga la clave se libera y la siguiente
+ * petición vuelve a consultar. La espera es acotada: si el leader tarda
+ * más que maxWait, el llamador hace su propia carga. Los errores del
+ * leader (p. ej. NotFoundException) se propagan a todos los que esperaban.
+ *
+ * Métrica singleflight.requests{name, result=leader|coalesced|timeout}
+ */
+public class SingleFlight {
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitMillis;
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    public SingleFlight(String name, Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxWaitMillis = maxWait.toMillis();
+        this.leaders = counter(meterRegistry, name, "leader");
+        this.coalesced = counter(meterRegistry, name, "coalesced");
+        this.timeouts = counter(meterRegistry, name, "timeout");
+        Gauge.builder("singleflight.inflight", inFlight, Map::size)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return (T) await(existing, loader);
+        }
+
+        leaders.increment();
+        try {
+            T result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> flight, Supplier<?> loader) {
+        try {
+            Object result = flight.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            coalesced.increment();
+            return result;
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            return loader.get();
+        } catch (ExecutionException ex) {
+            coalesced.increment();
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando una carga compartida", ex);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder("singleflight.requests")
+                .tag("name", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,121 @@
+package ec.edu.ups.icc.fundamentos01.core.concurrency;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reporta cuándo un hilo virtual queda fijado (pinned) a su carrier al
+ * bloquearse, p. ej. esperando I/O dentro de un synchronized: mientras
+ * dura, ese carrier no atiende a otros hilos virtuales.
+ *
+ * Usa el evento JFR jdk.VirtualThreadPinned (Java 21+). Cada caso suma
+ * a jvm.threads.virtual.pinned{source=jdbc|jwt|bcrypt|other} y se loguea
+ * una vez por punto de origen con sus primeros frames.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+    private static final int MAX_REPORTED = 100;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${virtual-threads.pinning.threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (Runtime.version().feature() < 21) {
+            logger.warn("spring.threads.virtual.enabled requiere Java 21+ (actual: {}); "
+                    + "las peticiones siguen en hilos de plataforma", Runtime.version().feature());
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("Monitor de pinning de hilos virtuales activo (umbral {})", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null
+                ? event.getStackTrace().getFrames()
+                : List.of();
+        String source = source(frames);
+        Counter.builder("jvm.threads.virtual.pinned")
+                .tag("source", source)
+                .description("Bloqueos de hilos virtuales fijados a su carrier")
+                .register(meterRegistry)
+                .increment();
+
+        String origin = frames.isEmpty() ? "?" : frameName(frames.get(0));
+        if (reported.size() < MAX_REPORTED && reported.add(origin)) {
+            logger.warn("Hilo virtual fijado {} ms ({}):\n\t{}", event.getDuration().toMillis(), source,
+                    frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::frameName)
+                            .collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    /**
+     * Camino de código donde ocurrió, según los paquetes del stack
+     */
+    private static String source(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("org.postgresql.") || type.startsWith("com.zaxxer.hikari.")
+                    || type.startsWith("org.hibernate.") || type.startsWith("java.sql.")) {
+                return "jdbc";
+            }
+            if (type.startsWith("io.jsonwebtoken.") || type.endsWith(".JwtUtil")
+                    || type.contains(".security.filters.")) {
+                return "jwt";
+            }
+            if (type.startsWith("org.springframework.security.crypto.")) {
+                return "bcrypt";
+            }
+        }
+        return "other";
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,103 @@
+package ec.edu.ups.icc.fundamentos01.core.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import ec.edu.ups.icc.fundamentos01.security.services.UserDetailsImpl;
+
+/**
+ * Ventana read-your-writes de ReadWriteRoutingDataSource: con
+ * replicas.enabled, un usuario lee del primario durante sticky-window
+ * desde que confirma una escritura.
+ *
+ * onPrimary fuerza el primario para las cargas que llenan una caché
+ * versionada: una réplica atrasada dejaría guardado, bajo la versión
+ * nueva, un estado anterior a la escritura que la subió.
+ */
+@Component
+public class ReadRouting {
+
+    private static final ThreadLocal<Boolean> FORCED_PRIMARY = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final long stickyWindow;
+
+    // userId -> instante (ms) del último commit con escritura
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public ReadRouting(ReplicaProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.stickyWindow = properties.getStickyWindow();
+    }
+
+    public void recordWrite(Long userId) {
+        if (userId != null) {
+            lastWriteByUser.put(userId, System.currentTimeMillis());
+        }
+    }
+
+    public boolean wroteRecently(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(userId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastWrite > stickyWindow) {
+            lastWriteByUser.remove(userId, lastWrite);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * true si las lecturas del hilo actual van al primario (sin réplicas,
+     * dentro de onPrimary o en la ventana del usuario autenticado). Lo usan
+     * quienes comparten resultados entre peticiones para no mezclar ambos
+     */
+    public boolean readsFromPrimary() {
+        return !enabled || pinnedToPrimary();
+    }
+
+    /**
+     * true si, habiendo réplicas, el hilo actual tiene que leer del primario.
+     * Una carga que se delega a otro hilo (sin SecurityContext ni onPrimary)
+     * iría a una réplica: en ese caso hay que consultar en el hilo actual
+     */
+    public boolean pinnedToPrimary() {
+        return enabled && (isPrimaryForced() || wroteRecently(currentUserId()));
+    }
+
+    /**
+     * Ejecuta action con todas sus transacciones (del mismo hilo) contra el primario
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (isPrimaryForced()) {
+            return action.get();
+        }
+        FORCED_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            FORCED_PRIMARY.remove();
+        }
+    }
+
+    static boolean isPrimaryForced() {
+        return FORCED_PRIMARY.get() != null;
+    }
+
+    static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
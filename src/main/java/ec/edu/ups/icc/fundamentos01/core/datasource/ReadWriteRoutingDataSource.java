@@ -0,0 +1,145 @@
+package ec.edu.ups.icc.fundamentos01.core.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envía las transacciones @Transactional(readOnly = true) a una réplica sana
+ * (round-robin) y el resto al primario.
+ *
+ * Debe usarse detrás de un LazyConnectionDataSourceProxy para que la conexión
+ * real se pida cuando la transacción ya tiene marcado su flag readOnly.
+ * La ventana read-your-writes (ReadRouting) empieza cuando la escritura
+ * confirma, no cuando pide la conexión.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final Set<String> healthy = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final ReadRouting readRouting;
+    private final long maxLagSeconds;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+            ReadRouting readRouting, long maxLagSeconds) {
+        this.replicas = replicas;
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.readRouting = readRouting;
+        this.maxLagSeconds = maxLagSeconds;
+        this.healthy.addAll(replicaKeys);
+
+        Map<Object, Object> targets = new LinkedHashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = ReadRouting.currentUserId();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive() && userId != null) {
+                recordWriteOnCommit(userId);
+            }
+            return PRIMARY;
+        }
+
+        if (ReadRouting.isPrimaryForced() || readRouting.wroteRecently(userId)) {
+            return PRIMARY;
+        }
+
+        return nextHealthyReplica();
+    }
+
+    /**
+     * Hasta el commit la réplica no puede tener la escritura: si la ventana
+     * empezara al pedir la conexión, una transacción larga la consumiría
+     */
+    private void recordWriteOnCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            readRouting.recordWrite(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readRouting.recordWrite(userId);
+            }
+        });
+    }
+
+    // ================== SELECCIÓN DE RÉPLICA ==================
+
+    private String nextHealthyReplica() {
+        int size = replicaKeys.size();
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get(Math.floorMod(next.getAndIncrement(), size));
+            if (healthy.contains(key)) {
+                return key;
+            }
+        }
+        // Sin réplicas sanas se lee del primario
+        return PRIMARY;
+    }
+
+    // ================== SALUD DE RÉPLICAS ==================
+
+    /**
+     * Verifica cada réplica: si no responde o su retraso supera el máximo
+     * se saca de rotación; cuando se recupera vuelve a entrar.
+     *
+     * Si ya aplicó todo el WAL recibido el retraso es 0: now() menos la hora
+     * de la última transacción aplicada crece solo mientras el primario no
+     * escribe y sacaría de rotación a réplicas al día.
+     */
+    public void checkReplicas() {
+        for (String key : replicaKeys) {
+            boolean ok = isReplicaHealthy(replicas.get(key));
+            if (ok && healthy.add(key)) {
+                logger.info("Réplica {} vuelve a rotación", key);
+            } else if (!ok && healthy.remove(key)) {
+                logger.warn("Réplica {} retirada de rotación", key);
+            }
+        }
+    }
+
+    private boolean isReplicaHealthy(DataSource replica) {
+        try (Connection connection = replica.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(
+                        "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+                                "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END")) {
+            return rs.next() && rs.getDouble(1) <= maxLagSeconds;
+        } catch (Exception ex) {
+            logger.debug("Chequeo de réplica fallido: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    public int getHealthyReplicaCount() {
+        return healthy.size();
+    }
+
+}
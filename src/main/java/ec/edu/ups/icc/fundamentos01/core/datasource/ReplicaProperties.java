@@ -0,0 +1,108 @@
+package ec.edu.ups.icc.fundamentos01.core.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "replicas")
+public class ReplicaProperties {
+
+    // Activa el enrutamiento lectura/escritura (desactivado por defecto)
+    private boolean enabled = false;
+
+    // Ventana (ms) en la que un usuario sigue leyendo del primario tras escribir
+    private long stickyWindow = 5000;
+
+    // Intervalo (ms) entre chequeos de salud de las réplicas
+    private long healthCheckInterval = 5000;
+
+    // Retraso máximo de replicación (s) antes de sacar una réplica de rotación
+    private long maxLagSeconds = 10;
+
+    // Tamaño máximo del pool de cada réplica
+    private int poolSize = 10;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getStickyWindow() {
+        return stickyWindow;
+    }
+
+    public void setStickyWindow(long stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    public long getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(long healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public long getMaxLagSeconds() {
+        return maxLagSeconds;
+    }
+
+    public void setMaxLagSeconds(long maxLagSeconds) {
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+
+}
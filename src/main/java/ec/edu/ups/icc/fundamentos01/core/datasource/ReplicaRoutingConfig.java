@@ -0,0 +1,103 @@
+package ec.edu.ups.icc.fundamentos01.core.datasource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Solo se activa con replicas.enabled=true. El primario sigue leyendo
+ * su configuración de spring.datasource.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    private final ReplicaProperties properties;
+    private final ReadRouting readRouting;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    public ReplicaRoutingConfig(ReplicaProperties properties, ReadRouting readRouting,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.readRouting = readRouting;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int primaryPoolSize) {
+
+        DataSource primary = createPool(ReadWriteRoutingDataSource.PRIMARY, url, username, password, primaryPoolSize);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReplicaProperties.Node node = properties.getNodes().get(i);
+            String name = "replica-" + (i + 1);
+            replicas.put(name, createPool(name, node.getUrl(), node.getUsername(), node.getPassword(),
+                    properties.getPoolSize()));
+        }
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replicas, readRouting,
+                properties.getMaxLagSeconds());
+        routingDataSource.afterPropertiesSet();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("datasource.replicas.healthy", routingDataSource,
+                    ReadWriteRoutingDataSource::getHealthyReplicaCount)
+                    .description("Réplicas en rotación")
+                    .register(registry);
+        }
+
+        // La conexión real se obtiene en la primera sentencia, cuando ya se
+        // conoce si la transacción es de solo lectura
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${replicas.health-check-interval:5000}")
+    public void checkReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.checkReplicas();
+        }
+    }
+
+    // Cada pool publica sus propias métricas (hikaricp.connections.* con tag pool)
+    private HikariDataSource createPool(String name, String url, String username, String password, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(poolSize);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        return new HikariDataSource(config);
+    }
+
+}
@@ -0,0 +1,37 @@
+package ec.edu.ups.icc.fundamentos01.core.dtos;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import ec.edu.ups.icc.fundamentos01.core.web.PageLinks;
+
+/**
+ * Envoltorio estable para respuestas paginadas (reemplaza serializar
+ * PageImpl/SliceImpl con pageable y sort anidados)
+ * total solo aparece cuando se conoce (Page); next es null en la última página
+ */
+@JsonPropertyOrder({ "content", "next", "hasNext", "total" })
+public class PageResponseDto<T> {
+    public List<T> content;
+    public String next;
+    public boolean hasNext;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long total;
+
+    public static <T> PageResponseDto<T> of(Slice<T> slice, PageLinks links) {
+        PageResponseDto<T> dto = new PageResponseDto<>();
+        dto.content = slice.getContent();
+        dto.next = links.next();
+        dto.hasNext = slice.hasNext();
+        if (slice instanceof Page<T> page) {
+            dto.total = page.getTotalElements();
+        }
+        return dto;
+    }
+}
@@ -18,6 +18,8 @@ public abstract class BaseModel {
     protected void onCreate() {
         this.deleted = false;
         this.createdAt = LocalDateTime.now();
+        // Un registro nuevo también es un cambio (sincronización por updatedAt)
+        this.updatedAt = this.createdAt;
     }
 
     @PreUpdate
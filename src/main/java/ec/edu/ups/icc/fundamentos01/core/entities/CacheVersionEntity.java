@@ -0,0 +1,31 @@
+package ec.edu.ups.icc.fundamentos01.core.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Versión por tipo de entidad del bus de invalidación: sube con cada
+ * envío, así un nodo que perdió mensajes (reconexión) lo detecta
+ * comparando con la última versión recibida
+ */
+@Entity
+@Table(name = "cache_invalidation_versions")
+public class CacheVersionEntity {
+
+    @Id
+    @Column(name = "entity_type", length = 32)
+    private String entityType;
+
+    @Column(nullable = false)
+    private long version;
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,15 @@
+package ec.edu.ups.icc.fundamentos01.core.invalidation;
+
+import java.util.Set;
+
+/**
+ * Evento local publicado cuando otro nodo modificó entidades (o cuando se
+ * detectó un mensaje perdido): las cachés en memoria lo escuchan.
+ * ids null = invalidar todo el tipo
+ */
+public record CacheInvalidatedEvent(CachedEntityType type, Set<Long> ids) {
+
+    public boolean isAll() {
+        return ids == null;
+    }
+}
@@ -0,0 +1,26 @@
+package ec.edu.ups.icc.fundamentos01.core.invalidation;
+
+/**
+ * Tipos de entidad cuyas cachés en memoria se invalidan entre nodos
+ */
+public enum CachedEntityType {
+    PRODUCT,
+    CATEGORY,
+    USER;
+
+    public String value() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * null si el valor no corresponde a ningún tipo (mensaje de otra versión)
+     */
+    public static CachedEntityType from(String value) {
+        for (CachedEntityType type : values()) {
+            if (type.value().equals(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
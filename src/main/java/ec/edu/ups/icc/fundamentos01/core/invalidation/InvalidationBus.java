@@ -0,0 +1,157 @@
+package ec.edu.ups.icc.fundamentos01.core.invalidation;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ec.edu.ups.icc.fundamentos01.products.services.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Bus de invalidación entre instancias sobre LISTEN/NOTIFY de PostgreSQL
+ * (cache.invalidation.enabled).
+ *
+ * Las escrituras se encolan después del commit y se envían agrupadas cada
+ * flush-interval: un pg_notify por tipo con los IDs acumulados (o "todo"
+ * si superan MAX_IDS). En la misma transacción sube la versión del tipo
+ * en cache_invalidation_versions; InvalidationListener la usa para
+ * detectar mensajes perdidos.
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    public static final String CHANNEL = "cache_invalidation";
+
+    // Más IDs que esto por envío se mandan como "todo" (límite de 8000 bytes de NOTIFY)
+    private static final int MAX_IDS = 200;
+
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final JsonMapper jsonMapper;
+    private final Counter sent;
+
+    // Pendientes de enviar, protegidos por this
+    private final Map<CachedEntityType, Set<Long>> pendingIds = new EnumMap<>(CachedEntityType.class);
+    private final Set<CachedEntityType> pendingAll = EnumSet.noneOf(CachedEntityType.class);
+
+    public InvalidationBus(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            JsonMapper jsonMapper, MeterRegistry meterRegistry,
+            @Value("${cache.invalidation.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.jsonMapper = jsonMapper;
+        this.sent = Counter.builder("cache.invalidation.sent")
+                .description("Mensajes pg_notify enviados")
+                .register(meterRegistry);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Avisa a los demás nodos; si hay transacción, solo si confirma
+     * id null = todas las entidades del tipo
+     */
+    public void publish(CachedEntityType type, Long id) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(type, id);
+                }
+            });
+        } else {
+            enqueue(type, id);
+        }
+    }
+
+    /**
+     * Escrituras de productos (ya después del commit); los ajustes masivos
+     * llegan sin ID
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (enabled) {
+            enqueue(CachedEntityType.PRODUCT, event.productId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.flush-interval:100}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        Map<CachedEntityType, Set<Long>> batch = new EnumMap<>(CachedEntityType.class);
+        synchronized (this) {
+            batch.putAll(pendingIds);
+            for (CachedEntityType type : pendingAll) {
+                batch.put(type, null);
+            }
+            pendingIds.clear();
+            pendingAll.clear();
+        }
+        batch.forEach((type, ids) -> {
+            try {
+                send(type, ids);
+            } catch (DataAccessException ex) {
+                // Los demás nodos lo detectan por versión al no recibirlo
+                logger.warn("No se pudo enviar la invalidación de {}: {}", type.value(), ex.getMessage());
+            }
+        });
+    }
+
+    private synchronized void enqueue(CachedEntityType type, Long id) {
+        if (pendingAll.contains(type)) {
+            return;
+        }
+        Set<Long> ids = pendingIds.computeIfAbsent(type, t -> new HashSet<>());
+        if (id == null || ids.size() >= MAX_IDS) {
+            pendingIds.remove(type);
+            pendingAll.add(type);
+        } else {
+            ids.add(id);
+        }
+    }
+
+    private void send(CachedEntityType type, Set<Long> ids) {
+        tx.executeWithoutResult(status -> {
+            Long version = jdbcTemplate.queryForObject(
+                    "INSERT INTO cache_invalidation_versions (entity_type, version) VALUES (?, 1) " +
+                            "ON CONFLICT (entity_type) DO UPDATE " +
+                            "SET version = cache_invalidation_versions.version + 1 RETURNING version",
+                    Long.class, type.value());
+            String payload = jsonMapper.writeValueAsString(
+                    new InvalidationMessage(nodeId, type.value(), version, ids));
+            // NOTIFY se entrega al confirmar, en el mismo orden que las versiones
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+        });
+        sent.increment();
+    }
+}
@@ -0,0 +1,224 @@
+package ec.edu.ups.icc.fundamentos01.core.invalidation;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Escucha el canal de invalidación en una conexión propia (fuera del pool
+ * de Hikari, siempre contra el primario) y publica CacheInvalidatedEvent
+ * con lo que modificaron los demás nodos.
+ *
+ * Mensajes perdidos: cada mensaje trae la versión de su tipo; si hay un
+ * salto, o si al reconectar / cada check-interval la versión en
+ * cache_invalidation_versions es mayor que la última recibida, se
+ * invalida el tipo completo.
+ *
+ * Un error al procesar un mensaje (p. ej. de un listener de
+ * CacheInvalidatedEvent) no detiene el hilo: se registra en
+ * cache.invalidation.errors y el siguiente chequeo de versiones invalida
+ * todos los tipos, por si el mensaje no llegó a aplicarse.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cache.invalidation", name = "enabled", havingValue = "true")
+public class InvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationListener.class);
+
+    private final InvalidationBus bus;
+    private final JsonMapper jsonMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollMillis;
+    private final long checkIntervalMillis;
+    private final long reconnectDelayMillis;
+    private final Counter received;
+    private final Counter recoveries;
+    private final Counter errors;
+
+    // Última versión recibida por tipo (solo la usa el hilo del listener)
+    private final Map<CachedEntityType, Long> lastSeen = new EnumMap<>(CachedEntityType.class);
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public InvalidationListener(InvalidationBus bus, JsonMapper jsonMapper,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${cache.invalidation.poll-timeout:500}") int pollMillis,
+            @Value("${cache.invalidation.check-interval:30000}") long checkIntervalMillis,
+            @Value("${cache.invalidation.reconnect-delay:2000}") long reconnectDelayMillis) {
+        this.bus = bus;
+        this.jsonMapper = jsonMapper;
+        this.eventPublisher = eventPublisher;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollMillis = pollMillis;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+        this.received = Counter.builder("cache.invalidation.received")
+                .description("Invalidaciones recibidas de otros nodos")
+                .register(meterRegistry);
+        this.recoveries = Counter.builder("cache.invalidation.recoveries")
+                .description("Invalidaciones completas por mensajes perdidos")
+                .register(meterRegistry);
+        this.errors = Counter.builder("cache.invalidation.errors")
+                .description("Errores al aplicar invalidaciones recibidas")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + InvalidationBus.CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                // Lo que cambió mientras no se escuchaba
+                checkVersions(connection);
+                long lastCheck = System.currentTimeMillis();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            try {
+                                handle(notification.getParameter());
+                            } catch (RuntimeException ex) {
+                                failed("Error aplicando la invalidación " + notification.getParameter(), ex);
+                            }
+                        }
+                    }
+                    if (System.currentTimeMillis() - lastCheck >= checkIntervalMillis) {
+                        checkVersions(connection);
+                        lastCheck = System.currentTimeMillis();
+                    }
+                }
+            } catch (SQLException ex) {
+                if (running) {
+                    logger.warn("Conexión LISTEN de invalidación perdida, reintentando: {}", ex.getMessage());
+                    sleepBeforeReconnect();
+                }
+            } catch (RuntimeException ex) {
+                // P. ej. un listener que falla durante checkVersions: se reconecta
+                if (running) {
+                    failed("Error en el listener de invalidación, reconectando", ex);
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        InvalidationMessage message;
+        try {
+            message = jsonMapper.readValue(payload, InvalidationMessage.class);
+        } catch (JacksonException ex) {
+            logger.warn("Mensaje de invalidación no válido: {}", payload);
+            return;
+        }
+        CachedEntityType type = CachedEntityType.from(message.type());
+        if (type == null) {
+            return;
+        }
+
+        Long previous = lastSeen.get(type);
+        if (previous != null && message.version() <= previous) {
+            // Ya cubierto por un chequeo de versiones
+            return;
+        }
+        lastSeen.put(type, message.version());
+        if (previous != null && message.version() > previous + 1) {
+            recover(type);
+            return;
+        }
+        // Las escrituras propias ya invalidaron la caché local
+        if (!bus.nodeId().equals(message.node())) {
+            received.increment();
+            eventPublisher.publishEvent(new CacheInvalidatedEvent(type, message.ids()));
+        }
+    }
+
+    private void checkVersions(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(
+                        "SELECT entity_type, version FROM cache_invalidation_versions")) {
+            while (rs.next()) {
+                CachedEntityType type = CachedEntityType.from(rs.getString(1));
+                long version = rs.getLong(2);
+                Long seen = type != null ? lastSeen.get(type) : null;
+                if (type != null && (seen == null || version > seen)) {
+                    lastSeen.put(type, version);
+                    recover(type);
+                }
+            }
+        }
+    }
+
+    private void recover(CachedEntityType type) {
+        recoveries.increment();
+        logger.info("Invalidación completa de {} (posibles mensajes perdidos)", type.value());
+        eventPublisher.publishEvent(new CacheInvalidatedEvent(type, null));
+    }
+
+    /**
+     * Olvida las versiones vistas: el próximo checkVersions invalida todos los tipos
+     */
+    private void failed(String message, RuntimeException ex) {
+        errors.increment();
+        logger.error(message, ex);
+        lastSeen.clear();
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ec.edu.ups.icc.fundamentos01.core.invalidation;
+
+import java.util.Set;
+
+/**
+ * Contenido (JSON) de cada pg_notify del canal de invalidación
+ * node: nodo que escribió; version: versión del tipo tras este envío;
+ * ids: entidades afectadas o null si se invalida todo el tipo
+ */
+public record InvalidationMessage(String node, String type, long version, Set<Long> ids) {
+}
@@ -0,0 +1,54 @@
+package ec.edu.ups.icc.fundamentos01.core.invalidation;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
+import ec.edu.ups.icc.fundamentos01.security.models.RoleEntity;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Aplica las invalidaciones de otros nodos a la caché de segundo nivel de
+ * Hibernate, que es local a cada instancia.
+ *
+ * Las regiones categories y roles son READ_ONLY y no expiran, y la caché de
+ * consultas solo se entera de las escrituras hechas en este nodo: sin esto,
+ * CategoryRepository.findAll / findByNameIgnoreCase / findAllById y
+ * RoleRepository.findByName seguirían devolviendo lo que había antes del
+ * cambio en otra instancia.
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+    private final Cache cache;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        switch (event.type()) {
+            case CATEGORY -> {
+                if (event.isAll()) {
+                    cache.evictEntityData(CategoryEntity.class);
+                } else {
+                    event.ids().forEach(id -> cache.evictEntityData(CategoryEntity.class, id));
+                }
+                // Las listas cacheadas pueden incluir (o no) la categoría cambiada
+                cache.evictQueryRegions();
+            }
+            case USER -> {
+                // Los roles asignados van en user_roles: la región de roles y las
+                // consultas que los resuelven se recargan completas
+                cache.evictEntityData(RoleEntity.class);
+                cache.evictQueryRegions();
+            }
+            case PRODUCT -> {
+                // Los productos no están en la caché de segundo nivel
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package ec.edu.ups.icc.fundamentos01.core.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import ec.edu.ups.icc.fundamentos01.core.datasource.ReadRouting;
+import jakarta.servlet.http.HttpServletRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Respuestas JSON que cambian poco (listado de categorías, primera página
+ * con el orden por defecto) con su versión gzip guardada.
+ *
+ * Cada entrada guarda la versión de los datos con que se generó (p. ej.
+ * la del catálogo): mientras no cambie, un acierto no consulta la base ni
+ * vuelve a serializar, solo copia los bytes. Se serializa con el JsonMapper
+ * del convertidor de Spring MVC, igual que las respuestas sin caché. El
+ * resto de respuestas las comprime Tomcat (server.compression); al llevar
+ * Content-Encoding no se comprimen dos veces.
+ */
+@Component
+public class CompressedResponseCache {
+
+    private static final int MAX_ENTRIES = 500;
+
+    private final JsonMapper jsonMapper;
+    private final long minResponseSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public CompressedResponseCache(JsonMapper jsonMapper,
+            @Value("${server.compression.min-response-size:2KB}") DataSize minResponseSize) {
+        this.jsonMapper = jsonMapper;
+        this.minResponseSize = minResponseSize.toBytes();
+    }
+
+    /**
+     * Solo aplica a respuestas JSON (ver JsonNegotiation.prefersJson)
+     * content solo se invoca si no hay entrada para key con esta versión;
+     * la versión se tiene que leer antes de llamar
+     */
+    public ResponseEntity<byte[]> serve(String key, long version, Supplier<Content> content,
+            HttpServletRequest request) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.version() != version) {
+            // Del primario: lo que sale de una réplica atrasada quedaría
+            // guardado bajo la versión actual (ver ReadRouting.onPrimary)
+            Content rendered = ReadRouting.onPrimary(content);
+            byte[] json = jsonMapper.writeValueAsBytes(rendered.body());
+            if (entry != null || entries.size() < MAX_ENTRIES) {
+                byte[] gzip = json.length >= minResponseSize ? gzip(json) : null;
+                entry = new Entry(version, rendered.headers(), json, gzip);
+                entries.put(key, entry);
+            } else {
+                entry = new Entry(version, rendered.headers(), json, null);
+            }
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .headers(entry.headers())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (entry.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.gzip());
+        }
+        return response.body(entry.json());
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] coding = part.trim().split(";");
+            if (!coding[0].trim().equalsIgnoreCase("gzip") && !coding[0].trim().equals("*")) {
+                continue;
+            }
+            return coding.length < 2 || !coding[1].replace(" ", "").matches("q=0(\\.0*)?");
+        }
+        return false;
+    }
+
+    /**
+     * Cuerpo y headers de la respuesta; se guardan juntos en la entrada
+     */
+    public record Content(Object body, HttpHeaders headers) {
+
+        public static Content of(Object body) {
+            return new Content(body, new HttpHeaders());
+        }
+    }
+
+    private record Entry(long version, HttpHeaders headers, byte[] json, byte[] gzip) {
+    }
+}
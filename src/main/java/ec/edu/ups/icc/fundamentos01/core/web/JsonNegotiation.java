@@ -0,0 +1,40 @@
+package ec.edu.ups.icc.fundamentos01.core.web;
+
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Decide a partir del header Accept si la respuesta saldrá como JSON o
+ * por uno de los convertidores binarios de JacksonConfig
+ */
+public final class JsonNegotiation {
+
+    private static final List<MediaType> BINARY_TYPES = List.of(
+            MediaType.APPLICATION_CBOR,
+            new MediaType("application", "x-jackson-smile"),
+            new MediaType("application", "x-msgpack"));
+
+    private JsonNegotiation() {
+    }
+
+    /**
+     * true si Accept está vacío, pide JSON o un comodín antes que un binario
+     */
+    public static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        for (MediaType requested : MediaType.parseMediaTypes(accept)) {
+            if (requested.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            for (MediaType binary : BINARY_TYPES) {
+                if (requested.isCompatibleWith(binary)) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
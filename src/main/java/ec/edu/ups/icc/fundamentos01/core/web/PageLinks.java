@@ -0,0 +1,75 @@
+package ec.edu.ups.icc.fundamentos01.core.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Enlaces de navegación (RFC 8288) construidos a partir de la petición
+ * actual: se conservan los filtros y solo cambia page / el cursor
+ */
+public final class PageLinks {
+
+    private final Map<String, String> rels = new LinkedHashMap<>();
+
+    private PageLinks() {
+    }
+
+    /**
+     * Paginación por número de página (?page=N)
+     */
+    public static PageLinks forPage(Slice<?> slice) {
+        PageLinks links = new PageLinks();
+        int page = slice.getNumber();
+        links.rels.put("first", withParam("page", 0));
+        if (slice.hasPrevious()) {
+            links.rels.put("prev", withParam("page", page - 1));
+        }
+        if (slice.hasNext()) {
+            links.rels.put("next", withParam("page", page + 1));
+        }
+        if (slice instanceof Page<?> total && total.getTotalPages() > 0) {
+            links.rels.put("last", withParam("page", total.getTotalPages() - 1));
+        }
+        return links;
+    }
+
+    /**
+     * Paginación keyset (?after=ultimoId): solo hay first y next
+     */
+    public static PageLinks forKeyset(Slice<?> slice, String cursorParam, Object nextCursor) {
+        PageLinks links = new PageLinks();
+        links.rels.put("first", withParam(cursorParam, null));
+        if (slice.hasNext() && nextCursor != null) {
+            links.rels.put("next", withParam(cursorParam, nextCursor));
+        }
+        return links;
+    }
+
+    public String next() {
+        return rels.get("next");
+    }
+
+    /**
+     * Valor del header Link: <url>; rel="next", <url>; rel="first"
+     */
+    public String header() {
+        StringJoiner joiner = new StringJoiner(", ");
+        rels.forEach((rel, url) -> joiner.add("<" + url + ">; rel=\"" + rel + "\""));
+        return joiner.toString();
+    }
+
+    private static String withParam(String name, Object value) {
+        ServletUriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentRequest();
+        if (value == null) {
+            builder.replaceQueryParam(name);
+        } else {
+            builder.replaceQueryParam(name, value);
+        }
+        return builder.build().toUriString();
+    }
+}
@@ -1,77 +1,169 @@
 package ec.edu.ups.icc.fundamentos01.products.controllers;
 
+import ec.edu.ups.icc.fundamentos01.core.dtos.PageResponseDto;
+import ec.edu.ups.icc.fundamentos01.core.web.CompressedResponseCache;
+import ec.edu.ups.icc.fundamentos01.core.web.JsonNegotiation;
+import ec.edu.ups.icc.fundamentos01.core.web.PageLinks;
+import ec.edu.ups.icc.fundamentos01.products.dtos.BulkPriceAdjustmentDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.BulkUpdateResultDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.CreateProductDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.PartialUpdateProductDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductSearchResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductSyncResponseDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.UpdateProductDto;
+import ec.edu.ups.icc.fundamentos01.products.mappers.ProductMapper;
+import ec.edu.ups.icc.fundamentos01.products.models.CountMode;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductFields;
+import ec.edu.ups.icc.fundamentos01.products.services.CatalogVersion;
+import ec.edu.ups.icc.fundamentos01.products.services.ProductChangeFeed;
+import ec.edu.ups.icc.fundamentos01.products.services.ProductJsonCache;
 import ec.edu.ups.icc.fundamentos01.products.services.ProductService;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import ec.edu.ups.icc.fundamentos01.security.services.UserDetailsImpl;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import java.util.List;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+        // Header con el modo de conteo que sirvió la respuesta
+        private static final String COUNT_MODE_HEADER = "X-Count-Mode";
+
         private final ProductService productService;
+        private final ProductJsonCache jsonCache;
+        private final CompressedResponseCache compressedCache;
+        private final ProductChangeFeed changeFeed;
+        private final CatalogVersion catalogVersion;
+        private final HttpServletRequest request;
 
-        public ProductController(ProductService productService) {
+        public ProductController(ProductService productService, ProductJsonCache jsonCache,
+                        CompressedResponseCache compressedCache, ProductChangeFeed changeFeed,
+                        CatalogVersion catalogVersion, HttpServletRequest request) {
                 this.productService = productService;
+                this.jsonCache = jsonCache;
+                this.compressedCache = compressedCache;
+                this.changeFeed = changeFeed;
+                this.catalogVersion = catalogVersion;
+                this.request = request;
         }
 
+        // Todos los endpoints de lectura aceptan fields=id,name,price,... (sparse
+        // fieldsets): el JSON y la consulta solo incluyen lo pedido
+
         @GetMapping
         @PreAuthorize("hasRole('ADMIN')")
-        public ResponseEntity<List<ProductResponseDto>> findAll() {
-                List<ProductResponseDto> products = productService.findAllList();
-                return ResponseEntity.ok(products);
+        public ResponseEntity<List<Object>> findAll(@RequestParam(required = false) String fields) {
+                ProductFields selected = ProductFields.from(fields);
+                List<ProductResponseDto> products = productService.findAllList(selected);
+                return ResponseEntity.ok(sparse(products, selected));
+        }
+
+        // Multi-get: GET /api/products?ids=3,1,2 (mismo orden que la petición)
+        @GetMapping(params = "ids")
+        public ResponseEntity<List<Object>> findByIds(
+                        @RequestParam List<Long> ids,
+                        @RequestParam(required = false) String fields) {
+                ProductFields selected = ProductFields.from(fields);
+                Function<ProductResponseDto, Object> renderer = renderer(selected);
+                List<Object> items = productService.findByIds(ids, selected).stream()
+                                .map(item -> ProductMapper.toBatchItem(item,
+                                                item.found ? renderer.apply(item.product) : null))
+                                .toList();
+                return ResponseEntity.ok(items);
         }
 
         // 1. ENDPOINT PAGE (Paginación normal con totales)
+        // countMode: exact (por defecto) | estimate | none
         @GetMapping("/paginated")
-        public ResponseEntity<Page<ProductResponseDto>> getAllProducts(
+        public ResponseEntity<?> getAllProducts(
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
-                        @RequestParam(defaultValue = "id,asc") String[] sort
+                        @RequestParam(defaultValue = "id,asc") String[] sort,
+                        @RequestParam(defaultValue = "exact") String countMode,
+                        @RequestParam(required = false) String fields
 
         ) {
-                return ResponseEntity.ok(productService.findAll(page, size, sort));
+                CountMode mode = CountMode.from(countMode);
+                ProductFields selected = ProductFields.from(fields);
+
+                // Primera página con el orden por defecto: gzip cacheado por
+                // versión del catálogo. La clave es la URL completa porque los
+                // enlaces (next, Link) dependen del host y de los parámetros
+                if (page == 0 && isDefaultSort(sort) && selected.isAll() && acceptsJson()) {
+                        String key = "products:first-page:"
+                                        + ServletUriComponentsBuilder.fromCurrentRequest().build().toUriString();
+                        return compressedCache.serve(key, catalogVersion.current(),
+                                        () -> productsPage(page, size, sort, mode, selected), request);
+                }
+                CompressedResponseCache.Content content = productsPage(page, size, sort, mode, selected);
+                return ResponseEntity.ok().headers(content.headers()).body(content.body());
         }
 
         // 2. ENDPOINT SLICE (Paginación ligera para rendimiento)
         // ESTE ES EL QUE TE ESTÁ FALLANDO. Asegúrate que llame a findAllSlice
         @GetMapping("/slice")
-        public ResponseEntity<Slice<ProductResponseDto>> getProductsSlice(
+        public ResponseEntity<PageResponseDto<Object>> getProductsSlice(
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
-                        @RequestParam(defaultValue = "id,asc") String[] sort) {
+                        @RequestParam(defaultValue = "id,asc") String[] sort,
+                        @RequestParam(required = false) String fields) {
 
-                return ResponseEntity.ok(productService.findAllSlice(page, size, sort));
+                ProductFields selected = ProductFields.from(fields);
+                Slice<Object> results = sparse(productService.findAllSlice(page, size, sort, selected), selected);
+                PageLinks links = PageLinks.forPage(results);
+                return ResponseEntity.ok()
+                                .header(HttpHeaders.LINK, links.header())
+                                .body(PageResponseDto.of(results, links));
         }
 
         // 3. ENDPOINT SEARCH (Buscador con filtros)
+        // Con facets=true la respuesta incluye conteo por categoría e
+        // histograma de precios (ancho bucketWidth) para los mismos filtros
         @GetMapping("/search")
-        public ResponseEntity<Page<ProductResponseDto>> searchProducts(
+        public ResponseEntity<?> searchProducts(
                         @RequestParam(required = false) String name,
                         @RequestParam(required = false) Double minPrice,
                         @RequestParam(required = false) Double maxPrice,
                         @RequestParam(required = false) Long categoryId,
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
-                        @RequestParam(defaultValue = "id,asc") String[] sort) {
-                return ResponseEntity.ok(
-                                productService.findWithFilters(name, minPrice, maxPrice, categoryId, page, size, sort));
+                        @RequestParam(defaultValue = "id,asc") String[] sort,
+                        @RequestParam(defaultValue = "exact") String countMode,
+                        @RequestParam(defaultValue = "false") boolean facets,
+                        @RequestParam(defaultValue = "50") double bucketWidth,
+                        @RequestParam(required = false) String fields) {
+                CountMode mode = CountMode.from(countMode);
+                ProductFields selected = ProductFields.from(fields);
+                Slice<Object> results = sparse(productService.findWithFilters(name, minPrice, maxPrice,
+                                categoryId, page, size, sort, mode, selected), selected);
+                PageLinks links = PageLinks.forPage(results);
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                .header(COUNT_MODE_HEADER, mode.value())
+                                .header(HttpHeaders.LINK, links.header());
+                if (!facets) {
+                        return response.body(PageResponseDto.of(results, links));
+                }
+                return response.body(new ProductSearchResponseDto(PageResponseDto.of(results, links),
+                                productService.findFacets(name, minPrice, maxPrice, categoryId, bucketWidth)));
         }
 
         // 4. ENDPOINT POR USUARIO (Con filtros)
         @GetMapping("/user/{userId}")
-        public ResponseEntity<Page<ProductResponseDto>> getProductsByUser(
+        public ResponseEntity<PageResponseDto<Object>> getProductsByUser(
                         @PathVariable Long userId,
                         @RequestParam(required = false) String name,
                         @RequestParam(required = false) Double minPrice,
@@ -79,9 +171,35 @@ public class ProductController {
                         @RequestParam(required = false) Long categoryId,
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
-                        @RequestParam(defaultValue = "id,asc") String[] sort) {
-                return ResponseEntity.ok(productService.findByUserIdWithFilters(userId, name, minPrice, maxPrice,
-                                categoryId, page, size, sort));
+                        @RequestParam(defaultValue = "id,asc") String[] sort,
+                        @RequestParam(defaultValue = "exact") String countMode,
+                        @RequestParam(required = false) String fields) {
+                CountMode mode = CountMode.from(countMode);
+                ProductFields selected = ProductFields.from(fields);
+                Slice<Object> results = sparse(productService.findByUserIdWithFilters(userId, name, minPrice,
+                                maxPrice, categoryId, page, size, sort, mode, selected), selected);
+                PageLinks links = PageLinks.forPage(results);
+                return ResponseEntity.ok()
+                                .header(COUNT_MODE_HEADER, mode.value())
+                                .header(HttpHeaders.LINK, links.header())
+                                .body(PageResponseDto.of(results, links));
+        }
+
+        // Feed de cambios (SSE): created / updated / deleted / bulk_updated / reset
+        // Al reconectar, el navegador envía Last-Event-ID y se reenvía lo perdido
+        @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter streamChanges(
+                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+                return changeFeed.subscribe(lastEventId);
+        }
+
+        // Sincronización incremental: sin since devuelve todo desde el inicio;
+        // luego se repite con el token next mientras hasMore sea true
+        @GetMapping("/sync")
+        public ResponseEntity<ProductSyncResponseDto> sync(
+                        @RequestParam(required = false) String since,
+                        @RequestParam(defaultValue = "500") int limit) {
+                return ResponseEntity.ok(productService.sync(since, limit));
         }
 
         @PostMapping
@@ -90,8 +208,11 @@ public class ProductController {
         }
 
         @GetMapping("/{id}")
-        public ResponseEntity<ProductResponseDto> getById(@PathVariable Long id) {
-                return ResponseEntity.ok(productService.findById(id));
+        public ResponseEntity<Object> getById(
+                        @PathVariable Long id,
+                        @RequestParam(required = false) String fields) {
+                ProductFields selected = ProductFields.from(fields);
+                return ResponseEntity.ok(renderer(selected).apply(productService.findById(id, selected)));
         }
 
         @PutMapping("/{id}")
@@ -104,6 +225,17 @@ public class ProductController {
                 return ResponseEntity.ok(updated);
         }
 
+        // Actualización parcial: solo los campos enviados, responde 204
+        @PatchMapping("/{id}")
+        public ResponseEntity<Void> partialUpdate(
+                        @PathVariable Long id,
+                        @Valid @RequestBody PartialUpdateProductDto dto,
+                        @AuthenticationPrincipal UserDetailsImpl currentUser) {
+
+                productService.partialUpdate(id, dto, currentUser);
+                return ResponseEntity.noContent().build();
+        }
+
         @DeleteMapping("/{id}")
         public ResponseEntity<Void> delete(
                         @PathVariable Long id,
@@ -112,9 +244,69 @@ public class ProductController {
                 return ResponseEntity.noContent().build();
         }
 
+        // Ajuste masivo de precios por categoría, owner y/o rango de precio
+        @PatchMapping("/bulk/price")
+        @PreAuthorize("hasRole('ADMIN')")
+        public ResponseEntity<BulkUpdateResultDto> adjustPrices(@Valid @RequestBody BulkPriceAdjustmentDto dto) {
+                return ResponseEntity.ok(productService.adjustPrices(dto));
+        }
+
+        // Recalcula por completo las tablas resumen de estadísticas (reparación)
+        @PostMapping("/stats/rebuild")
+        @PreAuthorize("hasRole('ADMIN')")
+        public ResponseEntity<Void> rebuildStats() {
+                productService.rebuildStats();
+                return ResponseEntity.noContent().build();
+        }
+
         @GetMapping("/list")
-        public ResponseEntity<List<ProductResponseDto>> getAllList() {
-                return ResponseEntity.ok(productService.findAllList());
+        public ResponseEntity<?> getAllList(@RequestParam(required = false) String fields) {
+                ProductFields selected = ProductFields.from(fields);
+                if (selected.isAll() && acceptsJson()) {
+                        return compressedCache.serve("products:list", catalogVersion.current(),
+                                        () -> CompressedResponseCache.Content.of(
+                                                        sparse(productService.findAllList(selected), selected)),
+                                        request);
+                }
+                return ResponseEntity.ok(sparse(productService.findAllList(selected), selected));
+        }
+
+        private CompressedResponseCache.Content productsPage(int page, int size, String[] sort, CountMode mode,
+                        ProductFields selected) {
+                Slice<Object> results = sparse(productService.findAll(page, size, sort, mode, selected), selected);
+                PageLinks links = PageLinks.forPage(results);
+                HttpHeaders headers = new HttpHeaders();
+                headers.add(COUNT_MODE_HEADER, mode.value());
+                headers.add(HttpHeaders.LINK, links.header());
+                return new CompressedResponseCache.Content(PageResponseDto.of(results, links), headers);
+        }
+
+        private Slice<Object> sparse(Slice<ProductResponseDto> results, ProductFields fields) {
+                return results.map(renderer(fields));
+        }
+
+        private List<Object> sparse(List<ProductResponseDto> results, ProductFields fields) {
+                return results.stream().map(renderer(fields)).toList();
+        }
+
+        private boolean acceptsJson() {
+                return JsonNegotiation.prefersJson(request.getHeader(HttpHeaders.ACCEPT));
+        }
+
+        // Spring separa por comas un único parámetro: el valor por defecto y
+        // ?sort=id,asc llegan como ["id", "asc"] (mismo caso que createSort)
+        private boolean isDefaultSort(String[] sort) {
+                String joined = String.join(",", sort);
+                return joined.equals("id") || (joined.startsWith("id,") && joined.substring(3).equalsIgnoreCase("asc"));
+        }
+
+        // Representación completa en JSON: fragmentos ya codificados de
+        // ProductJsonCache; con fields= o formato binario se serializa el DTO
+        private Function<ProductResponseDto, Object> renderer(ProductFields fields) {
+                if (fields.isAll() && acceptsJson()) {
+                        return jsonCache::fragment;
+                }
+                return dto -> ProductMapper.toSparse(dto, fields);
         }
 
 }
\ No newline at end of file
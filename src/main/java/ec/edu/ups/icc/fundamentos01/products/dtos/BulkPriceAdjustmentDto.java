@@ -0,0 +1,38 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public class BulkPriceAdjustmentDto {
+
+    public enum Mode {
+        PERCENT, // value = porcentaje (ej: 10 = +10%, -5 = -5%)
+        ABSOLUTE // value = monto a sumar/restar al precio
+    }
+
+    @NotNull(message = "El modo es obligatorio (PERCENT o ABSOLUTE)")
+    public Mode mode;
+
+    @NotNull(message = "El valor del ajuste es obligatorio")
+    public Double value;
+
+    // ============== FILTROS (opcionales, se combinan con AND) ==============
+
+    public Long categoryId;
+
+    public Long ownerId;
+
+    @PositiveOrZero
+    public Double minPrice;
+
+    @PositiveOrZero
+    public Double maxPrice;
+
+    // Cantidad de IDs procesados por cada UPDATE
+    @Min(100)
+    @Max(10000)
+    public Integer chunkSize;
+
+}
@@ -0,0 +1,11 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+public class BulkUpdateResultDto {
+    public long affected;
+    public int chunks;
+
+    public BulkUpdateResultDto(long affected, int chunks) {
+        this.affected = affected;
+        this.chunks = chunks;
+    }
+}
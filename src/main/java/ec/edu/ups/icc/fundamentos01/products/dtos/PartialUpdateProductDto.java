@@ -2,7 +2,6 @@ package ec.edu.ups.icc.fundamentos01.products.dtos;
 
 import java.util.Set;
 
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 
@@ -17,7 +16,7 @@ public class PartialUpdateProductDto {
     @Size(max = 500)
     public String description;
 
-    @NotNull(message = "Debe especificar al menos una categoría")
+    // Opcional: si se omite, las categorías no se cargan ni se modifican
     @Size(min = 1, message = "El producto debe tener al menos una categoría")
     public Set<Long> categoryIds; // Múltiples categorías
 
@@ -0,0 +1,20 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Elemento de la respuesta de GET /api/products?ids=
+ * found=false marca los IDs que no existen (product se omite)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductBatchItemDto {
+    public Long id;
+    public boolean found;
+    public ProductResponseDto product;
+
+    public ProductBatchItemDto(Long id, ProductResponseDto product) {
+        this.id = id;
+        this.found = product != null;
+        this.product = product;
+    }
+}
@@ -0,0 +1,24 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Evento del feed SSE; el id del evento (Last-Event-ID) es epoch-sequence,
+ * donde epoch cambia en cada arranque del servidor
+ */
+@JsonPropertyOrder({ "sequence", "type", "productId", "occurredAt" })
+public class ProductChangeDto {
+    public long sequence;
+    public String type;
+    public Long productId;
+    public LocalDateTime occurredAt;
+
+    public ProductChangeDto(long sequence, String type, Long productId, LocalDateTime occurredAt) {
+        this.sequence = sequence;
+        this.type = type;
+        this.productId = productId;
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,29 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductFacetsDto {
+
+    public double bucketWidth;
+
+    // Cantidad de productos por categoría
+    public List<CategoryFacetDto> categories = new ArrayList<>();
+
+    // Histograma de precios: [from, from + bucketWidth)
+    public List<PriceBucketDto> priceBuckets = new ArrayList<>();
+
+    // ============== DTOs INTERNOS ==============
+
+    public static class CategoryFacetDto {
+        public Long categoryId;
+        public long count;
+    }
+
+    public static class PriceBucketDto {
+        public double from;
+        public double to;
+        public long count;
+    }
+
+}
@@ -0,0 +1,16 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+import ec.edu.ups.icc.fundamentos01.core.dtos.PageResponseDto;
+
+/**
+ * Resultado de búsqueda junto con sus facetas (search?facets=true)
+ */
+public class ProductSearchResponseDto {
+    public PageResponseDto<?> results;
+    public ProductFacetsDto facets;
+
+    public ProductSearchResponseDto(PageResponseDto<?> results, ProductFacetsDto facets) {
+        this.results = results;
+        this.facets = facets;
+    }
+}
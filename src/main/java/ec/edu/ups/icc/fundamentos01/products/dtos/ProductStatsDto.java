@@ -0,0 +1,19 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({
+        "id",
+        "count",
+        "minPrice",
+        "maxPrice",
+        "avgPrice"
+})
+public class ProductStatsDto {
+    // ID del owner o de la categoría según el endpoint
+    public Long id;
+    public long count;
+    public Double minPrice;
+    public Double maxPrice;
+    public Double avgPrice;
+}
@@ -0,0 +1,22 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Lote de GET /api/products/sync
+ * upserts: productos creados o modificados; deleted: IDs borrados
+ * next: token para la siguiente llamada; hasMore: quedan cambios pendientes
+ * reset: el cliente no sincroniza desde antes de la retención de borrados,
+ * debe descartar su copia local (el lote empieza desde cero)
+ */
+@JsonPropertyOrder({ "upserts", "deleted", "next", "hasMore", "reset" })
+public class ProductSyncResponseDto {
+    public List<ProductResponseDto> upserts = new ArrayList<>();
+    public List<Long> deleted = new ArrayList<>();
+    public String next;
+    public boolean hasMore;
+    public boolean reset;
+}
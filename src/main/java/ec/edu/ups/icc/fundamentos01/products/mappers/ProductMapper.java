@@ -1,9 +1,14 @@
 package ec.edu.ups.icc.fundamentos01.products.mappers;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import ec.edu.ups.icc.fundamentos01.products.dtos.CreateProductDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductBatchItemDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.UpdateProductDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
 import ec.edu.ups.icc.fundamentos01.products.models.Product;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductFields;
 
 public class ProductMapper {
 
@@ -33,4 +38,38 @@ public class ProductMapper {
 
         return dto;
     }
+
+    // DTO -> JSON parcial (?fields=): solo las claves pedidas, en el mismo orden
+    public static Object toSparse(ProductResponseDto dto, ProductFields fields) {
+        if (fields.isAll()) {
+            return dto;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (String field : fields.names()) {
+            json.put(field, switch (field) {
+                case ProductFields.ID -> dto.id;
+                case ProductFields.NAME -> dto.name;
+                case ProductFields.PRICE -> dto.price;
+                case ProductFields.DESCRIPTION -> dto.description;
+                case ProductFields.USER -> dto.user;
+                case ProductFields.CATEGORIES -> dto.categories;
+                case ProductFields.CREATED_AT -> dto.createdAt;
+                case ProductFields.UPDATED_AT -> dto.updatedAt;
+                default -> throw new IllegalArgumentException("Campo desconocido: " + field);
+            });
+        }
+        return json;
+    }
+
+    // Elemento del multi-get con el producto ya renderizado (parcial o fragmento JSON)
+    public static Object toBatchItem(ProductBatchItemDto item, Object product) {
+        if (!item.found) {
+            return item;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", item.id);
+        json.put("found", true);
+        json.put("product", product);
+        return json;
+    }
 }
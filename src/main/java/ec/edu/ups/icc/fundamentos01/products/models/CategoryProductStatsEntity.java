@@ -0,0 +1,22 @@
+package ec.edu.ups.icc.fundamentos01.products.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Resumen de productos por categoría (una fila por categoría)
+ */
+@Entity
+@Table(name = "category_product_stats")
+public class CategoryProductStatsEntity extends ProductStatsModel {
+
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+}
@@ -0,0 +1,27 @@
+package ec.edu.ups.icc.fundamentos01.products.models;
+
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
+
+/**
+ * Estrategia para el total de elementos en los endpoints paginados
+ */
+public enum CountMode {
+    EXACT, // count(DISTINCT p) en cada petición (comportamiento original)
+    ESTIMATE, // estadísticas del planner o conteo cacheado refrescado en segundo plano
+    NONE; // sin total: semántica de Slice
+
+    public static CountMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return CountMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("countMode no válido: " + value + " (exact, estimate o none)");
+        }
+    }
+
+    public String value() {
+        return name().toLowerCase();
+    }
+}
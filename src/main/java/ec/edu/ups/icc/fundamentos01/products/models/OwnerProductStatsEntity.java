@@ -0,0 +1,22 @@
+package ec.edu.ups.icc.fundamentos01.products.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Resumen de productos por owner (una fila por usuario)
+ */
+@Entity
+@Table(name = "owner_product_stats")
+public class OwnerProductStatsEntity extends ProductStatsModel {
+
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+}
@@ -0,0 +1,16 @@
+package ec.edu.ups.icc.fundamentos01.products.models;
+
+/**
+ * Tipos de evento del feed de cambios (/api/products/changes/stream)
+ */
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    BULK_UPDATED, // operación masiva: productId nulo, el cliente debe recargar
+    RESET; // el Last-Event-ID ya salió del buffer: el cliente debe recargar
+
+    public String value() {
+        return name().toLowerCase();
+    }
+}
@@ -8,8 +8,19 @@ import ec.edu.ups.icc.fundamentos01.core.entities.BaseModel;
 import ec.edu.ups.icc.fundamentos01.users.models.UserEntity;
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.DynamicUpdate;
+
+/**
+ * @DynamicUpdate: el UPDATE generado solo incluye las columnas modificadas
+ */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Listados por owner paginados por ID (keyset)
+        @Index(name = "idx_products_user_id_id", columnList = "user_id, id"),
+        // Sincronización incremental por (updatedAt, id)
+        @Index(name = "idx_products_updated_at_id", columnList = "updatedAt, id")
+})
+@DynamicUpdate
 public class ProductEntity extends BaseModel {
 
     @Column(nullable = false, length = 150)
@@ -70,6 +81,20 @@ public class ProductEntity extends BaseModel {
         this.categories.clear();
     }
 
+    /**
+     * Sincroniza las categorías aplicando solo la diferencia de conjuntos,
+     * así Hibernate emite INSERT/DELETE únicamente para las filas de
+     * product_categories que cambian en lugar de reconstruir toda la tabla
+     */
+    public void syncCategories(Set<CategoryEntity> target) {
+        this.categories.removeIf(category -> !target.contains(category));
+        for (CategoryEntity category : target) {
+            if (!this.categories.contains(category)) {
+                this.categories.add(category);
+            }
+        }
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,80 @@
+package ec.edu.ups.icc.fundamentos01.products.models;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
+
+/**
+ * Campos pedidos con ?fields= en los endpoints de lectura de productos
+ * El id siempre se incluye; sin parámetro se devuelven todos
+ */
+public final class ProductFields {
+
+    public static final String ID = "id";
+    public static final String NAME = "name";
+    public static final String PRICE = "price";
+    public static final String DESCRIPTION = "description";
+    public static final String USER = "user";
+    public static final String CATEGORIES = "categories";
+    public static final String CREATED_AT = "createdAt";
+    public static final String UPDATED_AT = "updatedAt";
+
+    // Mismo orden que @JsonPropertyOrder de ProductResponseDto
+    private static final List<String> ALLOWED = List.of(ID, NAME, PRICE, DESCRIPTION, USER, CATEGORIES,
+            CREATED_AT, UPDATED_AT);
+
+    public static final ProductFields ALL = new ProductFields(new LinkedHashSet<>(ALLOWED));
+
+    private final Set<String> names;
+
+    private ProductFields(Set<String> names) {
+        this.names = names;
+    }
+
+    public static ProductFields from(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (String part : value.split(",")) {
+            String field = part.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!ALLOWED.contains(field)) {
+                throw new BadRequestException("Campo no válido: " + field + " (permitidos: " + ALLOWED + ")");
+            }
+            requested.add(field);
+        }
+
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String field : ALLOWED) {
+            if (field.equals(ID) || requested.contains(field)) {
+                ordered.add(field);
+            }
+        }
+        return ordered.size() == ALLOWED.size() ? ALL : new ProductFields(ordered);
+    }
+
+    public boolean includes(String field) {
+        return names.contains(field);
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    /**
+     * true si basta con las columnas escalares de products
+     * (sin description ni joins a users / categories)
+     */
+    public boolean isSummaryOnly() {
+        return !includes(DESCRIPTION) && !includes(USER) && !includes(CATEGORIES);
+    }
+
+    public Set<String> names() {
+        return names;
+    }
+}
@@ -0,0 +1,44 @@
+package ec.edu.ups.icc.fundamentos01.products.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+
+/**
+ * Agregado de precios mantenido de forma incremental.
+ * El promedio se deriva de price_sum / product_count.
+ */
+@MappedSuperclass
+public abstract class ProductStatsModel {
+
+    @Column(name = "product_count", nullable = false)
+    private long productCount;
+
+    @Column(name = "price_sum", nullable = false)
+    private double priceSum;
+
+    @Column(name = "min_price")
+    private Double minPrice;
+
+    @Column(name = "max_price")
+    private Double maxPrice;
+
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public double getPriceSum() {
+        return priceSum;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public Double getAvgPrice() {
+        return productCount > 0 ? priceSum / productCount : null;
+    }
+}
@@ -0,0 +1,62 @@
+package ec.edu.ups.icc.fundamentos01.products.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
+
+/**
+ * Posición en el flujo de cambios: último (changedAt, id) entregado
+ * coveredUntil: hasta cuándo el cliente ya vio todos los cambios (si el
+ * lote no tenía más, hasta el margen de seguridad de esa llamada aunque no
+ * hubiera cambios). Es lo que se compara con la retención de tombstones.
+ * Se serializa como texto opaco (base64url de "micros:id:coveredMicros")
+ */
+public record SyncToken(LocalDateTime changedAt, long id, LocalDateTime coveredUntil) {
+
+    // Punto de partida de una sincronización completa
+    public static final SyncToken START = new SyncToken(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+    public SyncToken(LocalDateTime changedAt, long id) {
+        this(changedAt, id, changedAt);
+    }
+
+    public static SyncToken from(String value) {
+        if (value == null || value.isBlank()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException(decoded);
+            }
+            LocalDateTime changedAt = fromMicros(Long.parseLong(parts[0]));
+            // Tokens de dos partes (anteriores a coveredUntil): solo la posición
+            LocalDateTime coveredUntil = parts.length == 3 ? fromMicros(Long.parseLong(parts[2])) : changedAt;
+            return new SyncToken(changedAt, Long.parseLong(parts[1]), coveredUntil);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new BadRequestException("Token de sincronización no válido");
+        }
+    }
+
+    public String value() {
+        String raw = toMicros(changedAt) + ":" + id + ":" + toMicros(coveredUntil);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        // PostgreSQL guarda microsegundos: se trunca para comparar igual que la BD
+        LocalDateTime truncated = time.truncatedTo(ChronoUnit.MICROS);
+        return truncated.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + truncated.getNano() / 1000;
+    }
+}
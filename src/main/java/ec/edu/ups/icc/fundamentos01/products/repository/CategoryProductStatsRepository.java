@@ -0,0 +1,70 @@
+package ec.edu.ups.icc.fundamentos01.products.repository;
+
+import java.util.Collection;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
+import ec.edu.ups.icc.fundamentos01.products.models.CategoryProductStatsEntity;
+
+@Repository
+public interface CategoryProductStatsRepository extends JpaRepository<CategoryProductStatsEntity, Long> {
+
+        /**
+         * Suma un producto al resumen de cada categoría indicada (UPSERT)
+         */
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_product_stats"))
+        @Query(value = "INSERT INTO category_product_stats AS s " +
+                        "(category_id, product_count, price_sum, min_price, max_price) " +
+                        "SELECT c.id, 1, :price, :price, :price FROM categories c WHERE c.id IN (:categoryIds) " +
+                        "ON CONFLICT (category_id) DO UPDATE SET " +
+                        "product_count = s.product_count + 1, " +
+                        "price_sum = s.price_sum + EXCLUDED.price_sum, " +
+                        "min_price = LEAST(s.min_price, EXCLUDED.min_price), " +
+                        "max_price = GREATEST(s.max_price, EXCLUDED.max_price)", nativeQuery = true)
+        void addProduct(@Param("categoryIds") Collection<Long> categoryIds, @Param("price") Double price);
+
+        /**
+         * Resta un producto del resumen de cada categoría indicada.
+         * Debe ejecutarse después de que product_categories esté en la BD.
+         */
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_product_stats"))
+        @Query(value = "UPDATE category_product_stats s SET " +
+                        "product_count = s.product_count - 1, " +
+                        "price_sum = s.price_sum - :price, " +
+                        "min_price = CASE WHEN :price <= s.min_price " +
+                        "THEN (SELECT MIN(p.price) FROM products p JOIN product_categories pc ON pc.product_id = p.id " +
+                        "WHERE pc.category_id = s.category_id) " +
+                        "ELSE s.min_price END, " +
+                        "max_price = CASE WHEN :price >= s.max_price " +
+                        "THEN (SELECT MAX(p.price) FROM products p JOIN product_categories pc ON pc.product_id = p.id " +
+                        "WHERE pc.category_id = s.category_id) " +
+                        "ELSE s.max_price END " +
+                        "WHERE s.category_id IN (:categoryIds)", nativeQuery = true)
+        void removeProduct(@Param("categoryIds") Collection<Long> categoryIds, @Param("price") Double price);
+
+        // ============== RECONSTRUCCIÓN COMPLETA ==============
+
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_product_stats"))
+        @Query(value = "DELETE FROM category_product_stats", nativeQuery = true)
+        void deleteAllRows();
+
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_product_stats"))
+        @Query(value = "INSERT INTO category_product_stats " +
+                        "(category_id, product_count, price_sum, min_price, max_price) " +
+                        "SELECT pc.category_id, COUNT(*), SUM(p.price), MIN(p.price), MAX(p.price) " +
+                        "FROM product_categories pc JOIN products p ON p.id = pc.product_id " +
+                        "GROUP BY pc.category_id", nativeQuery = true)
+        void rebuild();
+}
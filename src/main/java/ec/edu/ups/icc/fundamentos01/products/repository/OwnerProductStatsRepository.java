@@ -0,0 +1,66 @@
+package ec.edu.ups.icc.fundamentos01.products.repository;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
+import ec.edu.ups.icc.fundamentos01.products.models.OwnerProductStatsEntity;
+
+@Repository
+public interface OwnerProductStatsRepository extends JpaRepository<OwnerProductStatsEntity, Long> {
+
+        /**
+         * Suma un producto al resumen del owner (UPSERT)
+         */
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "owner_product_stats"))
+        @Query(value = "INSERT INTO owner_product_stats AS s " +
+                        "(owner_id, product_count, price_sum, min_price, max_price) " +
+                        "VALUES (:ownerId, 1, :price, :price, :price) " +
+                        "ON CONFLICT (owner_id) DO UPDATE SET " +
+                        "product_count = s.product_count + 1, " +
+                        "price_sum = s.price_sum + EXCLUDED.price_sum, " +
+                        "min_price = LEAST(s.min_price, EXCLUDED.min_price), " +
+                        "max_price = GREATEST(s.max_price, EXCLUDED.max_price)", nativeQuery = true)
+        void addProduct(@Param("ownerId") Long ownerId, @Param("price") Double price);
+
+        /**
+         * Resta un producto del resumen. El mínimo/máximo solo se recalcula
+         * (por el índice de user_id) si el precio quitado era el extremo.
+         * Debe ejecutarse después de que el cambio en products esté en la BD.
+         */
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "owner_product_stats"))
+        @Query(value = "UPDATE owner_product_stats s SET " +
+                        "product_count = s.product_count - 1, " +
+                        "price_sum = s.price_sum - :price, " +
+                        "min_price = CASE WHEN :price <= s.min_price " +
+                        "THEN (SELECT MIN(p.price) FROM products p WHERE p.user_id = s.owner_id) " +
+                        "ELSE s.min_price END, " +
+                        "max_price = CASE WHEN :price >= s.max_price " +
+                        "THEN (SELECT MAX(p.price) FROM products p WHERE p.user_id = s.owner_id) " +
+                        "ELSE s.max_price END " +
+                        "WHERE s.owner_id = :ownerId", nativeQuery = true)
+        void removeProduct(@Param("ownerId") Long ownerId, @Param("price") Double price);
+
+        // ============== RECONSTRUCCIÓN COMPLETA ==============
+
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "owner_product_stats"))
+        @Query(value = "DELETE FROM owner_product_stats", nativeQuery = true)
+        void deleteAllRows();
+
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "owner_product_stats"))
+        @Query(value = "INSERT INTO owner_product_stats " +
+                        "(owner_id, product_count, price_sum, min_price, max_price) " +
+                        "SELECT p.user_id, COUNT(*), SUM(p.price), MIN(p.price), MAX(p.price) " +
+                        "FROM products p GROUP BY p.user_id", nativeQuery = true)
+        void rebuild();
+}
@@ -5,12 +5,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
@@ -19,10 +29,175 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
 
         Slice<ProductEntity> findBy(Pageable pageable);
 
+        /**
+         * Listados proyectados a id, name, price y auditoría (?fields= sin
+         * description, user ni categories)
+         */
+        Page<ProductSummaryView> findAllProjectedBy(Pageable pageable);
+
+        Slice<ProductSummaryView> findSliceProjectedBy(Pageable pageable);
+
         List<ProductEntity> findByOwnerId(Long userId);
 
+        /**
+         * Multi-get: productos, owner y categorías en una sola consulta
+         */
+        @Query("SELECT DISTINCT p FROM ProductEntity p " +
+                        "JOIN FETCH p.owner " +
+                        "LEFT JOIN FETCH p.categories " +
+                        "WHERE p.id IN :ids")
+        List<ProductEntity> findAllWithRelationsByIdIn(@Param("ids") Collection<Long> ids);
+
+        // ============== VARIANTES SIN COUNT / SOLO COUNT (countMode) ==============
+
+        /**
+         * Mismos filtros que findWithFilters pero como Slice (sin count)
+         */
+        @Query("SELECT DISTINCT p FROM ProductEntity p " +
+                        "LEFT JOIN p.categories c " +
+                        "WHERE (COALESCE(:name, '') = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+                        "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                        "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+                        "AND (:categoryId IS NULL OR c.id = :categoryId)")
+        Slice<ProductEntity> findSliceWithFilters(
+                        @Param("name") String name,
+                        @Param("minPrice") Double minPrice,
+                        @Param("maxPrice") Double maxPrice,
+                        @Param("categoryId") Long categoryId,
+                        Pageable pageable);
+
+        @Query("SELECT count(DISTINCT p) FROM ProductEntity p " +
+                        "LEFT JOIN p.categories c " +
+                        "WHERE (COALESCE(:name, '') = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+                        "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                        "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+                        "AND (:categoryId IS NULL OR c.id = :categoryId)")
+        long countWithFilters(
+                        @Param("name") String name,
+                        @Param("minPrice") Double minPrice,
+                        @Param("maxPrice") Double maxPrice,
+                        @Param("categoryId") Long categoryId);
+
+        /**
+         * Mismos filtros que findByUserIdWithFilters pero como Slice (sin count)
+         */
+        @Query("SELECT DISTINCT p FROM ProductEntity p " +
+                        "LEFT JOIN p.categories c " +
+                        "WHERE p.owner.id = :userId " +
+                        "AND (COALESCE(:name, '') = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+                        "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                        "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+                        "AND (:categoryId IS NULL OR c.id = :categoryId)")
+        Slice<ProductEntity> findSliceByUserIdWithFilters(
+                        @Param("userId") Long userId,
+                        @Param("name") String name,
+                        @Param("minPrice") Double minPrice,
+                        @Param("maxPrice") Double maxPrice,
+                        @Param("categoryId") Long categoryId,
+                        Pageable pageable);
+
+        @Query("SELECT count(DISTINCT p) FROM ProductEntity p " +
+                        "LEFT JOIN p.categories c " +
+                        "WHERE p.owner.id = :userId " +
+                        "AND (COALESCE(:name, '') = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+                        "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                        "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+                        "AND (:categoryId IS NULL OR c.id = :categoryId)")
+        long countByUserIdWithFilters(
+                        @Param("userId") Long userId,
+                        @Param("name") String name,
+                        @Param("minPrice") Double minPrice,
+                        @Param("maxPrice") Double maxPrice,
+                        @Param("categoryId") Long categoryId);
+
+        /**
+         * Filas estimadas por el planner (ANALYZE / autovacuum). -1 si la
+         * tabla nunca fue analizada.
+         */
+        @Query(value = "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE relname = 'products'", nativeQuery = true)
+        Long estimateRowCount();
+
+        // ============== PRODUCTOS POR OWNER (ACOTADOS) ==============
+
+        /**
+         * Paginación keyset: siguiente bloque después del último ID visto.
+         * Usa el índice (user_id, id), sin OFFSET ni count.
+         */
+        @Query("SELECT p FROM ProductEntity p " +
+                        "WHERE p.owner.id = :userId AND (:afterId IS NULL OR p.id > :afterId) " +
+                        "ORDER BY p.id")
+        Slice<ProductEntity> findByOwnerIdAfter(
+                        @Param("userId") Long userId,
+                        @Param("afterId") Long afterId,
+                        Pageable pageable);
+
         List<ProductEntity> findByCategoriesId(Long categoryId);
 
+        /**
+         * Obtiene solo el ID del owner, sin cargar el producto ni sus relaciones
+         */
+        @Query("SELECT p.owner.id FROM ProductEntity p WHERE p.id = :id")
+        Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+        @Query("SELECT p.price FROM ProductEntity p WHERE p.id = :id")
+        Optional<Double> findPriceById(@Param("id") Long id);
+
+        @Query("SELECT c.id FROM ProductEntity p JOIN p.categories c WHERE p.id = :id")
+        Set<Long> findCategoryIdsById(@Param("id") Long id);
+
+        // ============== ACTUALIZACIONES DIRIGIDAS ==============
+
+        /**
+         * Actualiza solo los campos enviados (los nulos conservan su valor)
+         * en un único UPDATE, sin cargar la entidad ni sus categorías.
+         */
+        @Modifying
+        @Query("UPDATE ProductEntity p SET " +
+                        "p.name = COALESCE(:name, p.name), " +
+                        "p.price = COALESCE(:price, p.price), " +
+                        "p.description = COALESCE(:description, p.description), " +
+                        "p.updatedAt = :now " +
+                        "WHERE p.id = :id")
+        int partialUpdate(
+                        @Param("id") Long id,
+                        @Param("name") String name,
+                        @Param("price") Double price,
+                        @Param("description") String description,
+                        @Param("now") LocalDateTime now);
+
+        // ============== SINCRONIZACIÓN INCREMENTAL ==============
+
+        /**
+         * Cambios posteriores a (since, sinceId) y anteriores a until, en
+         * orden: productos por (updated_at, id) y borrados por
+         * (deleted_at, product_id). Cada rama recorre su índice y corta en
+         * limit, así el costo depende de los cambios y no del catálogo.
+         * Filas: [id, changed_at, deleted]
+         */
+        @Query(value = "SELECT c.id, c.changed_at, c.deleted FROM (" +
+                        "(SELECT p.id, p.updated_at AS changed_at, false AS deleted FROM products p " +
+                        "WHERE (p.updated_at, p.id) > (:since, :sinceId) AND p.updated_at < :until " +
+                        "ORDER BY p.updated_at, p.id LIMIT :limit) " +
+                        "UNION ALL " +
+                        "(SELECT t.product_id, t.deleted_at, true FROM product_tombstones t " +
+                        "WHERE (t.deleted_at, t.product_id) > (:since, :sinceId) AND t.deleted_at < :until " +
+                        "ORDER BY t.deleted_at, t.product_id LIMIT :limit)" +
+                        ") c ORDER BY c.changed_at, c.id LIMIT :limit", nativeQuery = true)
+        List<Object[]> findChangesSince(
+                        @Param("since") LocalDateTime since,
+                        @Param("sinceId") Long sinceId,
+                        @Param("until") LocalDateTime until,
+                        @Param("limit") int limit);
+
+        /**
+         * Filas creadas antes de que updatedAt se llenara al crear
+         */
+        @Transactional
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "products"))
+        @Query(value = "UPDATE products SET updated_at = created_at WHERE updated_at IS NULL", nativeQuery = true)
+        int backfillUpdatedAt();
+
         // ============== CONSULTAS CON FILTROS Y PAGINACIÓN ==============
 
         /**
@@ -66,4 +241,73 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
                         @Param("maxPrice") Double maxPrice,
                         @Param("categoryId") Long categoryId,
                         Pageable pageable);
-}
\ No newline at end of file
+
+        // ============== FACETAS ==============
+
+        /**
+         * Facetas de búsqueda en una sola pasada (GROUPING SETS):
+         * conteo por categoría y histograma de precios con los mismos
+         * filtros que findWithFilters.
+         * Cada fila: [category_id, bucket, count, grouping]
+         * grouping = 0 -> fila de categoría, 1 -> fila de bucket de precio
+         */
+        @Query(value = "SELECT f.category_id, f.bucket, COUNT(DISTINCT f.id), GROUPING(f.category_id) " +
+                        "FROM (SELECT p.id, pc.category_id, FLOOR(p.price / :bucketWidth) AS bucket " +
+                        "FROM products p LEFT JOIN product_categories pc ON pc.product_id = p.id " +
+                        "WHERE (COALESCE(CAST(:name AS text), '') = '' " +
+                        "OR LOWER(p.name) LIKE LOWER(CONCAT('%', CAST(:name AS text), '%'))) " +
+                        "AND (CAST(:minPrice AS double precision) IS NULL OR p.price >= :minPrice) " +
+                        "AND (CAST(:maxPrice AS double precision) IS NULL OR p.price <= :maxPrice) " +
+                        "AND (CAST(:categoryId AS bigint) IS NULL OR EXISTS (SELECT 1 FROM product_categories x " +
+                        "WHERE x.product_id = p.id AND x.category_id = :categoryId))) f " +
+                        "GROUP BY GROUPING SETS ((f.category_id), (f.bucket))", nativeQuery = true)
+        List<Object[]> findFacets(
+                        @Param("name") String name,
+                        @Param("minPrice") Double minPrice,
+                        @Param("maxPrice") Double maxPrice,
+                        @Param("categoryId") Long categoryId,
+                        @Param("bucketWidth") Double bucketWidth);
+
+        /**
+         * Límite superior del histograma cuando la búsqueda no trae maxPrice
+         */
+        @Query("SELECT MAX(p.price) FROM ProductEntity p")
+        Double findMaxPrice();
+
+        // ============== OPERACIONES MASIVAS ==============
+
+        @Query("SELECT MIN(p.id) FROM ProductEntity p")
+        Long findMinId();
+
+        @Query("SELECT MAX(p.id) FROM ProductEntity p")
+        Long findMaxId();
+
+        /**
+         * Ajusta el precio (precio * factor + delta, redondeado a 2 decimales)
+         * de los productos de un rango de IDs que cumplen los filtros.
+         * Cada llamada es su propia transacción para no mantener locks largos.
+         * Los productos cuyo precio quedaría en 0 o negativo no se modifican.
+         */
+        @Transactional
+        @Modifying
+        @Query("UPDATE ProductEntity p SET " +
+                        "p.price = ROUND(p.price * :factor + :delta, 2), " +
+                        "p.updatedAt = :now " +
+                        "WHERE p.id BETWEEN :fromId AND :toId " +
+                        "AND (:ownerId IS NULL OR p.owner.id = :ownerId) " +
+                        "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                        "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+                        "AND (:categoryId IS NULL OR p.id IN (" +
+                        "SELECT cp.id FROM ProductEntity cp JOIN cp.categories c WHERE c.id = :categoryId)) " +
+                        "AND ROUND(p.price * :factor + :delta, 2) > 0")
+        int adjustPriceInRange(
+                        @Param("fromId") Long fromId,
+                        @Param("toId") Long toId,
+                        @Param("factor") Double factor,
+                        @Param("delta") Double delta,
+                        @Param("ownerId") Long ownerId,
+                        @Param("minPrice") Double minPrice,
+                        @Param("maxPrice") Double maxPrice,
+                        @Param("categoryId") Long categoryId,
+                        @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,21 @@
+package ec.edu.ups.icc.fundamentos01.products.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección para listados con ?fields=: solo columnas escalares de products
+ * (sin description, owner ni categorías)
+ */
+public interface ProductSummaryView {
+
+    Long getId();
+
+    String getName();
+
+    Double getPrice();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+}
@@ -0,0 +1,25 @@
+package ec.edu.ups.icc.fundamentos01.products.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import ec.edu.ups.icc.fundamentos01.products.models.ProductTombstoneEntity;
+
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstoneEntity, Long> {
+
+        /**
+         * Borra las marcas más viejas que la retención
+         */
+        @Transactional
+        @Modifying
+        @Query("DELETE FROM ProductTombstoneEntity t WHERE t.deletedAt < :before")
+        int deleteOlderThan(@Param("before") LocalDateTime before);
+
+}
@@ -0,0 +1,63 @@
+package ec.edu.ups.icc.fundamentos01.products.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ec.edu.ups.icc.fundamentos01.core.invalidation.CacheInvalidatedEvent;
+
+/**
+ * Versión del catálogo: sube después de cada escritura de productos,
+ * categorías o nombres de usuario, local o de otro nodo.
+ *
+ * Las cachés de respuestas (ProductSearchCache, CompressedResponseCache)
+ * la llevan en la clave: invalidar es solo incrementar el contador. Quien
+ * cachea tiene que leer la versión antes de consultar, así una escritura
+ * que confirma en medio deja el resultado bajo la versión vieja.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Escrituras que no pasan por ProductChangedEvent (categorías, nombre
+     * del owner); si hay transacción, después del commit
+     */
+    public void increment() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Cambios de productos (incluye re-etiquetado masivo de categorías)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Escrituras de otros nodos (InvalidationListener)
+     */
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        version.incrementAndGet();
+    }
+}
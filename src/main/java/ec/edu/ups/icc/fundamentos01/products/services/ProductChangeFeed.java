@@ -0,0 +1,375 @@
+package ec.edu.ups.icc.fundamentos01.products.services;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductChangeDto;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductChangeType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Feed de cambios de productos por Server-Sent Events.
+ *
+ * Los eventos se numeran y se guardan en un buffer circular acotado; un
+ * cliente que reconecta con Last-Event-ID recibe lo que se perdió o un
+ * evento reset si ya salió del buffer. El id SSE es epoch-secuencia, con
+ * un epoch distinto en cada arranque: la numeración vuelve a empezar al
+ * reiniciar (o es otra en otra instancia), así que un id de otro epoch
+ * también recibe reset en vez de esperar una secuencia que no llegará.
+ * Cada suscriptor tiene su propia cola acotada que se vacía en un pool
+ * propio (products.changes.dispatch-threads), separado del
+ * applicationTaskExecutor: un envío bloqueado por un cliente que no lee
+ * no frena las exportaciones, los lotes ni los conteos. Si la cola se
+ * llena (cliente lento) o un envío pasa de send-timeout, se desconecta a
+ * ese cliente en vez de frenar a los demás.
+ *
+ * Métricas: products.changes.subscribers, products.changes.evictions,
+ * products.changes.send-timeouts y las del pool products.changes.dispatch
+ */
+@Component
+public class ProductChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeFeed.class);
+
+    // Marcador de heartbeat en las colas (se envía como comentario SSE)
+    private static final ProductChangeDto HEARTBEAT = new ProductChangeDto(0, "heartbeat", null, null);
+
+    private final ThreadPoolExecutor dispatcher;
+    private final int subscriberQueueSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Counter evictions;
+    private final Counter sendTimeouts;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Buffer circular: el evento con secuencia n está en ring[n % ring.length]
+    private final ProductChangeDto[] ring;
+    private long lastSequence; // protegido por this
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public ProductChangeFeed(MeterRegistry meterRegistry,
+            @Value("${products.changes.buffer-size:1000}") int bufferSize,
+            @Value("${products.changes.subscriber-queue-size:256}") int subscriberQueueSize,
+            @Value("${products.changes.timeout:1800000}") long timeoutMillis,
+            @Value("${products.changes.dispatch-threads:4}") int dispatchThreads,
+            @Value("${products.changes.send-timeout:10000}") long sendTimeoutMillis) {
+        // Cola sin límite explícito: cada suscriptor tiene como mucho una
+        // tarea pendiente (flag draining), así que la acotan los suscriptores
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "sse-dispatch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        new ExecutorServiceMetrics(dispatcher, "products.changes.dispatch", Tags.empty()).bindTo(meterRegistry);
+        this.ring = new ProductChangeDto[bufferSize];
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.evictions = Counter.builder("products.changes.evictions")
+                .description("Suscriptores desconectados por no consumir a tiempo")
+                .register(meterRegistry);
+        this.sendTimeouts = Counter.builder("products.changes.send-timeouts")
+                .description("Suscriptores desconectados por un envío bloqueado más de send-timeout")
+                .register(meterRegistry);
+        Gauge.builder("products.changes.subscribers", subscribers, Set::size)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Se ejecuta después del commit (o al instante si no hay transacción,
+     * como en los ajustes masivos por bloques)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        publish(event.type(), event.productId());
+    }
+
+    /**
+     * lastEventId: cabecera Last-Event-ID tal como la envía el cliente
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+
+        // Reenvío y alta bajo el mismo lock que publish: sin huecos ni duplicados
+        synchronized (this) {
+            for (ProductChangeDto missed : missedSince(lastEventId)) {
+                subscriber.offer(missed, Integer.MAX_VALUE);
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Comentario periódico: mantiene viva la conexión a través de proxies y
+     * detecta clientes desconectados
+     */
+    @Scheduled(fixedDelayString = "${products.changes.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offerIfIdle(HEARTBEAT)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Desconecta a los suscriptores con un envío en curso desde hace más de
+     * send-timeout (el cliente no lee y el buffer del socket está lleno)
+     */
+    @Scheduled(fixedDelayString = "${products.changes.send-timeout-check:1000}")
+    public void checkSendTimeouts() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedNanos;
+            if (started != 0 && now - started > sendTimeoutNanos
+                    && disconnect(subscriber, new TimeoutException("Envío SSE bloqueado más de "
+                            + TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos) + " ms"))) {
+                sendTimeouts.increment();
+                logger.warn("Suscriptor del feed de productos desconectado: envío bloqueado más de {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            }
+        }
+    }
+
+    private synchronized void publish(ProductChangeType type, Long productId) {
+        ProductChangeDto change = new ProductChangeDto(++lastSequence, type.value(), productId,
+                LocalDateTime.now());
+        ring[(int) (change.sequence % ring.length)] = change;
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(change, subscriberQueueSize)) {
+                schedule(subscriber);
+            } else {
+                evict(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Eventos posteriores a lastEventId que siguen en el buffer; si ya se
+     * sobrescribieron, o el id es de otro epoch, no se entiende o es mayor
+     * que la última secuencia emitida, se devuelve un único evento reset
+     */
+    private List<ProductChangeDto> missedSince(String lastEventId) {
+        List<ProductChangeDto> missed = new ArrayList<>();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return missed;
+        }
+        long lastSeen = sequenceOf(lastEventId);
+        if (lastSeen == lastSequence) {
+            return missed;
+        }
+        long oldest = Math.max(1, lastSequence - ring.length + 1);
+        if (lastSeen < 0 || lastSeen > lastSequence || lastSeen + 1 < oldest) {
+            missed.add(new ProductChangeDto(lastSequence, ProductChangeType.RESET.value(), null,
+                    LocalDateTime.now()));
+            return missed;
+        }
+        for (long sequence = lastSeen + 1; sequence <= lastSequence; sequence++) {
+            missed.add(ring[(int) (sequence % ring.length)]);
+        }
+        return missed;
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Secuencia de un id de este epoch; -1 si es de otro arranque o no es válido
+     */
+    private long sequenceOf(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        subscriber.startSending();
+        try {
+            ProductChangeDto change;
+            while (!subscriber.closed && (change = subscriber.poll()) != null) {
+                subscriber.sendStartedNanos = System.nanoTime();
+                if (change == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(eventId(change.sequence))
+                            .name(change.type)
+                            .data(change));
+                }
+                subscriber.sendStartedNanos = 0;
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Cliente desconectado, emisor ya completado o envío interrumpido
+            // por disconnect
+            subscribers.remove(subscriber);
+            subscriber.clear();
+        } finally {
+            subscriber.sendStartedNanos = 0;
+            subscriber.stopSending();
+            subscriber.draining.set(false);
+        }
+        if (subscriber.closed) {
+            subscriber.finish();
+            return;
+        }
+        // Un evento pudo llegar entre el último poll y liberar el flag
+        if (subscriber.hasPending() && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (disconnect(subscriber, null)) {
+            evictions.increment();
+            logger.warn("Suscriptor del feed de productos desconectado: cola llena ({} eventos)",
+                    subscriberQueueSize);
+        }
+    }
+
+    /**
+     * Saca al suscriptor y completa su emisor (con error si error != null)
+     * desde el pool del feed: nunca en el hilo que publica, que tiene el
+     * lock del feed, porque completar espera al envío en curso. Si hay un
+     * envío bloqueado se interrumpe; el hilo queda libre cuando la escritura
+     * falla (por la interrupción o por el timeout de escritura del conector)
+     */
+    private boolean disconnect(Subscriber subscriber, Throwable error) {
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+        subscriber.close(error);
+        schedule(subscriber);
+        return true;
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayDeque<ProductChangeDto> queue = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        // Inicio del envío en curso (System.nanoTime), 0 si no hay
+        private volatile long sendStartedNanos;
+        private volatile boolean closed;
+        private volatile Throwable closeError;
+        private Thread sender; // protegido por this
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private synchronized void startSending() {
+            sender = Thread.currentThread();
+        }
+
+        private synchronized void stopSending() {
+            sender = null;
+            // Una interrupción de close que llegó tarde no afecta a la siguiente tarea del pool
+            Thread.interrupted();
+        }
+
+        private synchronized void close(Throwable error) {
+            closeError = error;
+            closed = true;
+            queue.clear();
+            if (sender != null) {
+                sender.interrupt();
+            }
+        }
+
+        private void finish() {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                if (closeError != null) {
+                    emitter.completeWithError(closeError);
+                } else {
+                    emitter.complete();
+                }
+            } catch (RuntimeException ex) {
+                // El emisor ya estaba completado
+            }
+        }
+
+        private synchronized boolean offer(ProductChangeDto change, int limit) {
+            if (queue.size() >= limit) {
+                return false;
+            }
+            queue.addLast(change);
+            return true;
+        }
+
+        private synchronized boolean offerIfIdle(ProductChangeDto change) {
+            if (!queue.isEmpty() || draining.get()) {
+                return false;
+            }
+            queue.addLast(change);
+            return true;
+        }
+
+        private synchronized ProductChangeDto poll() {
+            return queue.pollFirst();
+        }
+
+        private synchronized boolean hasPending() {
+            return !queue.isEmpty();
+        }
+
+        private synchronized void clear() {
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ec.edu.ups.icc.fundamentos01.products.services;
+
+import ec.edu.ups.icc.fundamentos01.products.models.ProductChangeType;
+
+/**
+ * Evento de aplicación publicado por las escrituras de productos; el feed
+ * lo recibe después del commit
+ */
+public record ProductChangedEvent(ProductChangeType type, Long productId) {
+}
@@ -0,0 +1,97 @@
+package ec.edu.ups.icc.fundamentos01.products.services;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+
+/**
+ * Totales aproximados para countMode=estimate.
+ *
+ * Sin filtros se usan las estadísticas del planner (pg_class.reltuples).
+ * Con filtros se guarda el último conteo exacto por combinación de filtros y,
+ * cuando vence, se sigue sirviendo el valor anterior mientras se recalcula
+ * en segundo plano.
+ */
+@Component
+public class ProductCountEstimator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCountEstimator.class);
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private final ProductRepository productRepo;
+    private final TaskExecutor taskExecutor;
+    private final long ttlMillis;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public ProductCountEstimator(ProductRepository productRepo,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${products.count.estimate-ttl:60000}") long ttlMillis) {
+        this.productRepo = productRepo;
+        this.taskExecutor = taskExecutor;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Total de productos sin filtros
+     */
+    public long estimateAll() {
+        Long reltuples = productRepo.estimateRowCount();
+        if (reltuples != null && reltuples >= 0) {
+            return reltuples;
+        }
+        // Tabla aún sin ANALYZE: se usa el conteo cacheado
+        return estimate("all", productRepo::count);
+    }
+
+    /**
+     * Total cacheado para la clave; si no existe se calcula en línea
+     */
+    public long estimate(String key, LongSupplier exactCount) {
+        CachedCount cached = counts.get(key);
+        long now = System.currentTimeMillis();
+
+        if (cached == null) {
+            long value = exactCount.getAsLong();
+            store(key, value, now);
+            return value;
+        }
+
+        if (now - cached.computedAt > ttlMillis && refreshing.add(key)) {
+            taskExecutor.execute(() -> {
+                try {
+                    store(key, exactCount.getAsLong(), System.currentTimeMillis());
+                } catch (Exception ex) {
+                    logger.warn("No se pudo refrescar el conteo {}: {}", key, ex.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        }
+        return cached.value;
+    }
+
+    private void store(String key, long value, long computedAt) {
+        if (counts.size() >= MAX_ENTRIES && !counts.containsKey(key)) {
+            // Cota simple de memoria: se descartan todas las entradas
+            counts.clear();
+        }
+        counts.put(key, new CachedCount(value, computedAt));
+    }
+
+    private record CachedCount(long value, long computedAt) {
+    }
+
+}
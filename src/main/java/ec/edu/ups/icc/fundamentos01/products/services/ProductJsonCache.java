@@ -0,0 +1,116 @@
+package ec.edu.ups.icc.fundamentos01.products.services;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ec.edu.ups.icc.fundamentos01.core.invalidation.CacheInvalidatedEvent;
+import ec.edu.ups.icc.fundamentos01.core.invalidation.CachedEntityType;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.util.RawValue;
+
+/**
+ * JSON ya codificado (UTF-8) de cada ProductResponseDto completo, por
+ * producto y versión (updatedAt, o createdAt si nunca se actualizó).
+ *
+ * Las respuestas insertan el fragmento como RawValue: el generador copia
+ * los bytes sin volver a recorrer el DTO. Un producto modificado cambia
+ * de versión y se recodifica en la siguiente lectura; los cambios que no
+ * tocan updatedAt (nombre del owner, re-etiquetado masivo) invalidan todo.
+ * Solo el convertidor JSON puede escribir un RawValue (JsonNegotiation).
+ *
+ * Se codifica con el JsonMapper (Jackson 3) del convertidor de Spring MVC:
+ * el RawValue tiene que ser el de tools.jackson para que ese convertidor
+ * lo copie tal cual, y la salida es la misma que serializar el DTO.
+ */
+@Component
+public class ProductJsonCache {
+
+    private final JsonMapper jsonMapper;
+    private final Cache<Long, Fragment> fragments;
+
+    public ProductJsonCache(JsonMapper jsonMapper, MeterRegistry meterRegistry,
+            @Value("${products.json-cache.max-entries:10000}") long maxEntries) {
+        this.jsonMapper = jsonMapper;
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, "products.json");
+    }
+
+    /**
+     * Fragmento del DTO; se codifica solo si no existe o cambió la versión
+     */
+    public RawValue fragment(ProductResponseDto dto) {
+        LocalDateTime version = dto.updatedAt != null ? dto.updatedAt : dto.createdAt;
+        Fragment cached = fragments.getIfPresent(dto.id);
+        if (cached != null && Objects.equals(cached.version(), version)) {
+            return cached.json();
+        }
+        RawValue json = encode(dto);
+        fragments.put(dto.id, new Fragment(version, json));
+        return json;
+    }
+
+    public void evict(Long productId) {
+        runAfterCommit(() -> fragments.invalidate(productId));
+    }
+
+    public void invalidateAll() {
+        runAfterCommit(fragments::invalidateAll);
+    }
+
+    /**
+     * Escrituras de otros nodos (InvalidationListener). Un producto cambia
+     * de versión igual, pero un borrado o cambios sin updatedAt no
+     */
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidatedEvent event) {
+        if (event.type() == CachedEntityType.PRODUCT && !event.isAll()) {
+            fragments.invalidateAll(event.ids());
+        } else {
+            // Categorías y usuarios van embebidos en los fragmentos
+            fragments.invalidateAll();
+        }
+    }
+
+    private RawValue encode(ProductResponseDto dto) {
+        SerializedString json = new SerializedString(jsonMapper.writeValueAsString(dto));
+        // Fuerza la conversión a UTF-8 una sola vez (queda guardada en el objeto)
+        json.asUnquotedUTF8();
+        return new RawValue(json);
+    }
+
+    /**
+     * Si hay transacción activa se invalida tras el commit, para que una
+     * lectura concurrente no vuelva a cachear el estado anterior
+     */
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Fragment(LocalDateTime version, RawValue json) {
+    }
+}
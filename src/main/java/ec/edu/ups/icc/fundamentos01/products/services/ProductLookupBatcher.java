@@ -0,0 +1,86 @@
+package ec.edu.ups.icc.fundamentos01.products.services;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ec.edu.ups.icc.fundamentos01.core.concurrency.MicroBatcher;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Búsquedas por ID de productos agrupadas entre peticiones
+ * (products.batching.enabled, desactivado por defecto): los IDs pedidos
+ * dentro de la ventana se cargan con un solo WHERE id IN (...).
+ *
+ * Las entidades se devuelven ya fuera de la transacción, con owner y
+ * categorías cargados por el fetch join, así que se pueden mapear a DTO
+ * sin sesión abierta. Los lotes corren en applicationTaskExecutor, sin
+ * SecurityContext: con réplicas van siempre a una réplica, por eso
+ * ProductServiceImpl no usa el lote para usuarios en su ventana
+ * read-your-writes.
+ *
+ * Ajuste: products.batching.window (p. ej. 500us, 2ms) y max-size deciden
+ * cuántas consultas se ahorran frente a la latencia añadida a cada petición.
+ * Comparación: src/jmh/.../ProductLookupBatchingBenchmark
+ */
+@Component
+public class ProductLookupBatcher {
+
+    private final boolean enabled;
+    private final MicroBatcher<Long, ProductEntity> batcher;
+
+    public ProductLookupBatcher(ProductRepository productRepo, PlatformTransactionManager transactionManager,
+            @Qualifier("applicationTaskExecutor") TaskExecutor loadExecutor, MeterRegistry meterRegistry,
+            @Value("${products.batching.enabled:false}") boolean enabled,
+            @Value("${products.batching.window:2ms}") Duration window,
+            @Value("${products.batching.max-size:50}") int maxSize,
+            @Value("${products.batching.max-wait:2000}") long maxWaitMillis) {
+        this.enabled = enabled;
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        this.batcher = !enabled ? null
+                : new MicroBatcher<>("products.findById",
+                        ids -> readOnlyTx.execute(status -> byId(productRepo, ids)),
+                        loadExecutor, window, maxSize,
+                        Duration.ofMillis(maxWaitMillis), meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Producto con sus relaciones o null si no existe
+     */
+    public ProductEntity find(Long id) {
+        return batcher.load(id);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    private static Map<Long, ProductEntity> byId(ProductRepository productRepo, Set<Long> ids) {
+        Map<Long, ProductEntity> found = new HashMap<>();
+        for (ProductEntity entity : productRepo.findAllWithRelationsByIdIn(ids)) {
+            found.put(entity.getId(), entity);
+        }
+        return found;
+    }
+}
@@ -0,0 +1,107 @@
+package ec.edu.ups.icc.fundamentos01.products.services;
+
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
+import ec.edu.ups.icc.fundamentos01.core.datasource.ReadRouting;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Resultados de /api/products/search por filtros normalizados.
+ *
+ * Las claves llevan la versión del catálogo (CatalogVersion): las entradas
+ * de versiones anteriores ya no se consultan y las saca el límite de
+ * memoria (products.search-cache.max-size, peso aproximado de cada página).
+ *
+ * Métricas: products.search.cache.requests{shape, result=hit|miss}, donde
+ * shape indica qué filtros trae la búsqueda (p. ej. category+price), y las
+ * de Caffeine con el nombre products.search
+ */
+@Component
+public class ProductSearchCache {
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final CatalogVersion catalogVersion;
+    private final Cache<String, Slice<ProductResponseDto>> results;
+
+    public ProductSearchCache(MeterRegistry meterRegistry, CatalogVersion catalogVersion,
+            @Value("${products.search-cache.enabled:true}") boolean enabled,
+            @Value("${products.search-cache.max-size:32MB}") DataSize maxSize) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+        this.catalogVersion = catalogVersion;
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher(ProductSearchCache::weigh)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "products.search");
+    }
+
+    /**
+     * El loader recibe la clave ya versionada: dos búsquedas solo comparten
+     * una carga en curso (single-flight) si ven la misma versión
+     */
+    public Slice<ProductResponseDto> get(String shape, String key,
+            Function<String, Slice<ProductResponseDto>> loader) {
+        String versionedKey = catalogVersion.current() + "|" + key;
+        if (!enabled) {
+            return loader.apply(versionedKey);
+        }
+        Slice<ProductResponseDto> cached = results.getIfPresent(versionedKey);
+        if (cached != null) {
+            counter(shape, "hit").increment();
+            return cached;
+        }
+        counter(shape, "miss").increment();
+        // La versión se leyó antes de consultar: si hubo una escritura en
+        // medio, lo guardado queda bajo la versión vieja y no se vuelve a servir.
+        // Se carga del primario: una réplica puede no tener aún la escritura
+        // que subió la versión y su resultado quedaría guardado como actual
+        Slice<ProductResponseDto> loaded = ReadRouting.onPrimary(() -> loader.apply(versionedKey));
+        results.put(versionedKey, loaded);
+        return loaded;
+    }
+
+    private Counter counter(String shape, String result) {
+        return Counter.builder("products.search.cache.requests")
+                .tag("shape", shape)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Bytes aproximados de la página (objetos + cadenas en UTF-16)
+     */
+    private static int weigh(String key, Slice<ProductResponseDto> page) {
+        long bytes = 256 + 2L * key.length();
+        for (ProductResponseDto dto : page.getContent()) {
+            bytes += 160 + 2L * (length(dto.name) + length(dto.description));
+            if (dto.user != null) {
+                bytes += 96 + 2L * (length(dto.user.name) + length(dto.user.email));
+            }
+            if (dto.categories != null) {
+                for (CategoryResponseDto category : dto.categories) {
+                    bytes += 64 + 2L * length(category.name);
+                }
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -1,10 +1,17 @@
 package ec.edu.ups.icc.fundamentos01.products.services;
 
 import java.util.List;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Slice;
+import ec.edu.ups.icc.fundamentos01.products.dtos.BulkPriceAdjustmentDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductBatchItemDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.BulkUpdateResultDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.CreateProductDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.PartialUpdateProductDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductFacetsDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductSyncResponseDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.UpdateProductDto;
+import ec.edu.ups.icc.fundamentos01.products.models.CountMode;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductFields;
 import ec.edu.ups.icc.fundamentos01.security.services.UserDetailsImpl;
 import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
 
@@ -12,21 +19,29 @@ public interface ProductService {
 
         ProductResponseDto create(CreateProductDto dto);
 
-        Page<ProductResponseDto> findAll(int page, int size, String[] sort);
+        Slice<ProductResponseDto> findAll(int page, int size, String[] sort, CountMode countMode,
+                        ProductFields fields);
 
-        Slice<ProductResponseDto> findAllSlice(int page, int size, String[] sort);
+        Slice<ProductResponseDto> findAllSlice(int page, int size, String[] sort, ProductFields fields);
 
-        List<ProductResponseDto> findAllList();
+        List<ProductResponseDto> findAllList(ProductFields fields);
 
-        ProductResponseDto findById(Long id);
+        ProductResponseDto findById(Long id, ProductFields fields);
 
-        Page<ProductResponseDto> findWithFilters(
+        List<ProductBatchItemDto> findByIds(List<Long> ids, ProductFields fields);
+
+        ProductSyncResponseDto sync(String since, int limit);
+
+        Slice<ProductResponseDto> findWithFilters(
                         String name, Double minPrice, Double maxPrice, Long categoryId,
-                        int page, int size, String[] sort);
+                        int page, int size, String[] sort, CountMode countMode, ProductFields fields);
+
+        ProductFacetsDto findFacets(
+                        String name, Double minPrice, Double maxPrice, Long categoryId, double bucketWidth);
 
-        Page<ProductResponseDto> findByUserIdWithFilters(
+        Slice<ProductResponseDto> findByUserIdWithFilters(
                         Long userId, String name, Double minPrice, Double maxPrice, Long categoryId,
-                        int page, int size, String[] sort);
+                        int page, int size, String[] sort, CountMode countMode, ProductFields fields);
 
         List<ProductResponseDto> findByUserId(Long id);
 
@@ -34,5 +49,11 @@ public interface ProductService {
 
         ProductResponseDto update(Long id, UpdateProductDto dto, UserDetailsImpl currentUser);
 
+        void partialUpdate(Long id, PartialUpdateProductDto dto, UserDetailsImpl currentUser);
+
         void delete(Long id, UserDetailsImpl currentUser);
+
+        BulkUpdateResultDto adjustPrices(BulkPriceAdjustmentDto dto);
+
+        void rebuildStats();
 }
\ No newline at end of file
@@ -1,32 +1,66 @@
 package ec.edu.ups.icc.fundamentos01.products.services;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
 import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
 import ec.edu.ups.icc.fundamentos01.categories.reporitory.CategoryRepository;
+import ec.edu.ups.icc.fundamentos01.core.concurrency.SingleFlight;
+import ec.edu.ups.icc.fundamentos01.core.datasource.ReadRouting;
 import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
 import ec.edu.ups.icc.fundamentos01.exceptions.domain.NotFoundException;
+import ec.edu.ups.icc.fundamentos01.products.dtos.BulkPriceAdjustmentDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductBatchItemDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.BulkUpdateResultDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.CreateProductDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.PartialUpdateProductDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductFacetsDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductSyncResponseDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.UpdateProductDto;
+import ec.edu.ups.icc.fundamentos01.products.models.CountMode;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductChangeType;
 import ec.edu.ups.icc.fundamentos01.products.models.Product;
 import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductFields;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductTombstoneEntity;
+import ec.edu.ups.icc.fundamentos01.products.models.SyncToken;
 import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductSummaryView;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductTombstoneRepository;
 import ec.edu.ups.icc.fundamentos01.security.services.UserDetailsImpl;
 import ec.edu.ups.icc.fundamentos01.users.models.UserEntity;
 import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.GrantedAuthority;
 
@@ -36,56 +70,194 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepo;
     private final UserRepository userRepo;
     private final CategoryRepository categoryRepo;
+    private final ProductStatsService statsService;
+    private final ProductCountEstimator countEstimator;
+    private final MeterRegistry meterRegistry;
+    private final ProductJsonCache jsonCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductTombstoneRepository tombstoneRepo;
+    private final int maxBatchIds;
+    private final int maxSyncBatch;
+    private final int maxFacetBuckets;
+    private final Duration syncSafetyLag;
+    private final Duration tombstoneRetention;
+    private final TransactionTemplate readOnlyTx;
+    private final SingleFlight byIdFlights;
+    private final SingleFlight searchFlights;
+    private final ProductLookupBatcher lookupBatcher;
+    private final ProductSearchCache searchCache;
+    private final ReadRouting readRouting;
 
     public ProductServiceImpl(ProductRepository productRepo, UserRepository userRepo,
-            CategoryRepository categoryRepository) {
+            CategoryRepository categoryRepository, ProductStatsService statsService,
+            ProductCountEstimator countEstimator, MeterRegistry meterRegistry, ProductJsonCache jsonCache,
+            ApplicationEventPublisher eventPublisher, ProductTombstoneRepository tombstoneRepo,
+            PlatformTransactionManager transactionManager, ProductLookupBatcher lookupBatcher,
+            ProductSearchCache searchCache, ReadRouting readRouting,
+            @Value("${products.batch.max-ids:100}") int maxBatchIds,
+            @Value("${products.sync.max-batch:1000}") int maxSyncBatch,
+            @Value("${products.facets.max-buckets:200}") int maxFacetBuckets,
+            @Value("${products.sync.safety-lag:5000}") long syncSafetyLagMillis,
+            @Value("${products.sync.tombstone-retention-days:30}") int tombstoneRetentionDays,
+            @Value("${products.coalescing.enabled:true}") boolean coalescingEnabled,
+            @Value("${products.coalescing.max-wait:2000}") long coalescingMaxWaitMillis) {
         this.productRepo = productRepo;
         this.userRepo = userRepo;
         this.categoryRepo = categoryRepository;
+        this.statsService = statsService;
+        this.countEstimator = countEstimator;
+        this.meterRegistry = meterRegistry;
+        this.jsonCache = jsonCache;
+        this.eventPublisher = eventPublisher;
+        this.tombstoneRepo = tombstoneRepo;
+        this.maxBatchIds = maxBatchIds;
+        this.maxSyncBatch = maxSyncBatch;
+        this.maxFacetBuckets = maxFacetBuckets;
+        this.syncSafetyLag = Duration.ofMillis(syncSafetyLagMillis);
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+        this.lookupBatcher = lookupBatcher;
+        this.searchCache = searchCache;
+        this.readRouting = readRouting;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        Duration maxWait = Duration.ofMillis(coalescingMaxWaitMillis);
+        this.byIdFlights = coalescingEnabled ? new SingleFlight("products.findById", maxWait, meterRegistry) : null;
+        this.searchFlights = coalescingEnabled ? new SingleFlight("products.search", maxWait, meterRegistry) : null;
     }
 
     // ================== MÉTODOS PAGINADOS (LA NOVEDAD) ==================
 
     @Override
-    public Page<ProductResponseDto> findAll(int page, int size, String[] sort) {
+    @Transactional(readOnly = true)
+    public Slice<ProductResponseDto> findAll(int page, int size, String[] sort, CountMode countMode,
+            ProductFields fields) {
         Pageable pageable = createPageable(page, size, sort);
-        Page<ProductEntity> productPage = productRepo.findAll(pageable);
-        return productPage.map(this::toResponseDto);
+        if (fields.isSummaryOnly()) {
+            // Solo columnas escalares: SELECT proyectado, sin description ni joins
+            Slice<ProductSummaryView> summaryPage = timed("findAll", countMode, () -> switch (countMode) {
+                case EXACT -> productRepo.findAllProjectedBy(pageable);
+                case NONE -> productRepo.findSliceProjectedBy(pageable);
+                case ESTIMATE -> withTotal(productRepo.findSliceProjectedBy(pageable), countEstimator.estimateAll());
+            });
+            return summaryPage.map(this::toResponseDto);
+        }
+        Slice<ProductEntity> productPage = timed("findAll", countMode, () -> switch (countMode) {
+            case EXACT -> productRepo.findAll(pageable);
+            case NONE -> productRepo.findBy(pageable);
+            case ESTIMATE -> withTotal(productRepo.findBy(pageable), countEstimator.estimateAll());
+        });
+        return productPage.map(entity -> toResponseDto(entity, fields));
     }
 
     @Override
-    public Slice<ProductResponseDto> findAllSlice(int page, int size, String[] sort) {
+    @Transactional(readOnly = true)
+    public Slice<ProductResponseDto> findAllSlice(int page, int size, String[] sort, ProductFields fields) {
         Pageable pageable = createPageable(page, size, sort);
+        if (fields.isSummaryOnly()) {
+            return productRepo.findSliceProjectedBy(pageable).map(this::toResponseDto);
+        }
         Slice<ProductEntity> productSlice = productRepo.findBy(pageable);
-        return productSlice.map(this::toResponseDto);
+        return productSlice.map(entity -> toResponseDto(entity, fields));
     }
 
+    /**
+     * Resultado cacheado por filtros normalizados y versión del catálogo
+     * (ProductSearchCache); en un fallo, las búsquedas idénticas
+     * concurrentes comparten una sola consulta (ver coalesced). La
+     * transacción se abre dentro de la carga: los que esperan no ocupan
+     * una conexión.
+     */
     @Override
-    public Page<ProductResponseDto> findWithFilters(String name, Double minPrice, Double maxPrice, Long categoryId,
-            int page, int size, String[] sort) {
+    public Slice<ProductResponseDto> findWithFilters(String name, Double minPrice, Double maxPrice, Long categoryId,
+            int page, int size, String[] sort, CountMode countMode, ProductFields fields) {
         validateFilterParameters(minPrice, maxPrice);
+        String key = countKey("search", name, minPrice, maxPrice, categoryId) + "|" + page + "|" + size
+                + "|" + Arrays.toString(sort) + "|" + countMode.value() + "|" + fieldsKey(fields);
+        return searchCache.get(searchShape(name, minPrice, maxPrice, categoryId), key,
+                versionedKey -> coalesced(searchFlights, versionedKey, () -> readOnlyTx.execute(
+                        status -> loadWithFilters(name, minPrice, maxPrice, categoryId, page, size, sort,
+                                countMode, fields))));
+    }
+
+    private Slice<ProductResponseDto> loadWithFilters(String name, Double minPrice, Double maxPrice,
+            Long categoryId, int page, int size, String[] sort, CountMode countMode, ProductFields fields) {
         Pageable pageable = createPageable(page, size, sort);
 
-        Page<ProductEntity> productPage = productRepo.findWithFilters(name, minPrice, maxPrice, categoryId, pageable);
-        return productPage.map(this::toResponseDto);
+        Slice<ProductEntity> productPage = timed("findWithFilters", countMode, () -> switch (countMode) {
+            case EXACT -> productRepo.findWithFilters(name, minPrice, maxPrice, categoryId, pageable);
+            case NONE -> productRepo.findSliceWithFilters(name, minPrice, maxPrice, categoryId, pageable);
+            case ESTIMATE -> withTotal(
+                    productRepo.findSliceWithFilters(name, minPrice, maxPrice, categoryId, pageable),
+                    countEstimator.estimate(countKey("search", name, minPrice, maxPrice, categoryId),
+                            () -> productRepo.countWithFilters(name, minPrice, maxPrice, categoryId)));
+        });
+        return productPage.map(entity -> toResponseDto(entity, fields));
     }
 
     @Override
-    public Page<ProductResponseDto> findByUserIdWithFilters(Long userId, String name, Double minPrice, Double maxPrice,
-            Long categoryId, int page, int size, String[] sort) {
+    @Transactional(readOnly = true)
+    public ProductFacetsDto findFacets(String name, Double minPrice, Double maxPrice, Long categoryId,
+            double bucketWidth) {
+        validateFilterParameters(minPrice, maxPrice);
+        validateBucketWidth(minPrice, maxPrice, bucketWidth);
+
+        ProductFacetsDto facets = new ProductFacetsDto();
+        facets.bucketWidth = bucketWidth;
+
+        for (Object[] row : productRepo.findFacets(name, minPrice, maxPrice, categoryId, bucketWidth)) {
+            long count = ((Number) row[2]).longValue();
+            boolean isBucketRow = ((Number) row[3]).intValue() == 1;
+
+            if (isBucketRow) {
+                ProductFacetsDto.PriceBucketDto bucket = new ProductFacetsDto.PriceBucketDto();
+                bucket.from = ((Number) row[1]).doubleValue() * bucketWidth;
+                bucket.to = bucket.from + bucketWidth;
+                bucket.count = count;
+                facets.priceBuckets.add(bucket);
+            } else if (row[0] != null) {
+                // Se omiten los productos sin categoría
+                ProductFacetsDto.CategoryFacetDto category = new ProductFacetsDto.CategoryFacetDto();
+                category.categoryId = ((Number) row[0]).longValue();
+                category.count = count;
+                facets.categories.add(category);
+            }
+        }
+
+        facets.priceBuckets.sort((a, b) -> Double.compare(a.from, b.from));
+        facets.categories.sort((a, b) -> Long.compare(b.count, a.count));
+        return facets;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ProductResponseDto> findByUserIdWithFilters(Long userId, String name, Double minPrice,
+            Double maxPrice, Long categoryId, int page, int size, String[] sort, CountMode countMode,
+            ProductFields fields) {
         if (!userRepo.existsById(userId)) {
             throw new NotFoundException("Usuario no encontrado con ID: " + userId);
         }
         validateFilterParameters(minPrice, maxPrice);
         Pageable pageable = createPageable(page, size, sort);
-        Page<ProductEntity> productPage = productRepo.findByUserIdWithFilters(userId, name, minPrice, maxPrice,
-                categoryId, pageable);
-        return productPage.map(this::toResponseDto);
+
+        Slice<ProductEntity> productPage = timed("findByUserIdWithFilters", countMode, () -> switch (countMode) {
+            case EXACT -> productRepo.findByUserIdWithFilters(userId, name, minPrice, maxPrice,
+                    categoryId, pageable);
+            case NONE -> productRepo.findSliceByUserIdWithFilters(userId, name, minPrice, maxPrice,
+                    categoryId, pageable);
+            case ESTIMATE -> withTotal(
+                    productRepo.findSliceByUserIdWithFilters(userId, name, minPrice, maxPrice, categoryId,
+                            pageable),
+                    countEstimator.estimate(countKey("user:" + userId, name, minPrice, maxPrice, categoryId),
+                            () -> productRepo.countByUserIdWithFilters(userId, name, minPrice, maxPrice,
+                                    categoryId)));
+        });
+        return productPage.map(entity -> toResponseDto(entity, fields));
     }
 
     // ================== MÉTODOS CRUD ESTÁNDAR ==================
 
     @Override
+    @Transactional
     public ProductResponseDto create(CreateProductDto dto) {
         UserEntity owner = userRepo.findById(dto.userId)
                 .orElseThrow(() -> new NotFoundException("Usuario no encontrado con ID: " + dto.userId));
@@ -98,22 +270,137 @@ public class ProductServiceImpl implements ProductService {
         Product product = Product.fromDto(dto);
         ProductEntity entity = product.toEntity(owner, categories);
         ProductEntity saved = productRepo.save(entity);
+        statsService.onCreated(owner.getId(), categoryIds(categories), saved.getPrice());
+        publishChange(ProductChangeType.CREATED, saved.getId());
         return toResponseDto(saved);
     }
 
     @Override
-    public List<ProductResponseDto> findAllList() {
-        return productRepo.findAll().stream().map(this::toResponseDto).toList();
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> findAllList(ProductFields fields) {
+        return productRepo.findAll().stream().map(entity -> toResponseDto(entity, fields)).toList();
     }
 
+    /**
+     * Lecturas concurrentes del mismo producto comparten una sola consulta;
+     * con products.batching.enabled las de distintos productos se agrupan
+     * en un WHERE id IN (...) (ProductLookupBatcher). El lote se consulta en
+     * otro hilo, sin el usuario: quien debe leer del primario (read-your-writes)
+     * consulta por su cuenta
+     */
     @Override
-    public ProductResponseDto findById(Long id) {
-        return productRepo.findById(id)
-                .map(this::toResponseDto)
-                .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
+    public ProductResponseDto findById(Long id, ProductFields fields) {
+        return coalesced(byIdFlights, id + "|" + fieldsKey(fields), () -> {
+            if (lookupBatcher.isEnabled() && !readRouting.pinnedToPrimary()) {
+                // Se espera el lote sin transacción propia (sin ocupar conexión)
+                ProductEntity entity = lookupBatcher.find(id);
+                if (entity == null) {
+                    throw new NotFoundException("Producto no encontrado con ID: " + id);
+                }
+                return toResponseDto(entity, fields);
+            }
+            return readOnlyTx.execute(status -> productRepo.findById(id)
+                    .map(entity -> toResponseDto(entity, fields))
+                    .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id)));
+        });
+    }
+
+    /**
+     * Devuelve los productos en el orden pedido; los IDs repetidos se
+     * consultan una sola vez y los inexistentes quedan marcados found=false
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductBatchItemDto> findByIds(List<Long> ids, ProductFields fields) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("Debe enviar al menos un ID");
+        }
+        if (ids.size() > maxBatchIds) {
+            throw new BadRequestException("Máximo " + maxBatchIds + " IDs por consulta");
+        }
+
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        uniqueIds.remove(null);
+        Map<Long, ProductResponseDto> byId = new HashMap<>();
+        // Sin user ni categories no hace falta el fetch join
+        List<ProductEntity> found = fields.includes(ProductFields.USER) || fields.includes(ProductFields.CATEGORIES)
+                ? productRepo.findAllWithRelationsByIdIn(uniqueIds)
+                : productRepo.findAllById(uniqueIds);
+        for (ProductEntity entity : found) {
+            byId.put(entity.getId(), toResponseDto(entity, fields));
+        }
+
+        List<ProductBatchItemDto> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            items.add(new ProductBatchItemDto(id, byId.get(id)));
+        }
+        return items;
+    }
+
+    /**
+     * Cambios desde el token recibido, en orden (changedAt, id)
+     * Solo se entregan cambios con más antigüedad que products.sync.safety-lag:
+     * una transacción todavía abierta puede confirmar después un updatedAt
+     * anterior al token y quedaría detrás de él. Transacciones más largas que
+     * ese margen (p. ej. un ajuste masivo enorme) siguen pudiendo saltarse.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProductSyncResponseDto sync(String since, int limit) {
+        if (limit < 1 || limit > maxSyncBatch) {
+            throw new BadRequestException("El límite debe estar entre 1 y " + maxSyncBatch);
+        }
+
+        ProductSyncResponseDto response = new ProductSyncResponseDto();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.minus(syncSafetyLag);
+        SyncToken token = SyncToken.from(since);
+        // Solo faltan borrados posteriores a coveredUntil; si eso es anterior
+        // a la retención pueden estar purgados y no se puede reconstruir el
+        // delta: el cliente empieza de nuevo. Un catálogo sin cambios no
+        // provoca reset mientras el cliente siga sincronizando
+        if (!token.equals(SyncToken.START) && token.coveredUntil().isBefore(now.minus(tombstoneRetention))) {
+            response.reset = true;
+            token = SyncToken.START;
+        }
+
+        // Se pide uno más para saber si quedan cambios
+        List<Object[]> changes = productRepo.findChangesSince(token.changedAt(), token.id(), until, limit + 1);
+        response.hasMore = changes.size() > limit;
+
+        List<Long> upsertIds = new ArrayList<>();
+        SyncToken last = token;
+        for (Object[] row : changes.subList(0, Math.min(limit, changes.size()))) {
+            Long id = ((Number) row[0]).longValue();
+            last = new SyncToken(toLocalDateTime(row[1]), id);
+            if ((Boolean) row[2]) {
+                response.deleted.add(id);
+            } else {
+                upsertIds.add(id);
+            }
+        }
+
+        Map<Long, ProductResponseDto> byId = new HashMap<>();
+        List<ProductEntity> found = upsertIds.isEmpty() ? List.of() : productRepo.findAllWithRelationsByIdIn(upsertIds);
+        for (ProductEntity entity : found) {
+            byId.put(entity.getId(), toResponseDto(entity));
+        }
+        for (Long id : upsertIds) {
+            // Si se borró entre ambas consultas su tombstone llegará en un lote siguiente
+            ProductResponseDto dto = byId.get(id);
+            if (dto != null) {
+                response.upserts.add(dto);
+            }
+        }
+
+        // Sin más cambios, el cliente ya vio todo lo confirmado hasta until
+        LocalDateTime covered = response.hasMore ? last.changedAt() : until;
+        response.next = new SyncToken(last.changedAt(), last.id(), covered).value();
+        return response;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductResponseDto> findByUserId(Long userId) {
         if (!userRepo.existsById(userId))
             throw new NotFoundException("Usuario no encontrado");
@@ -121,6 +408,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductResponseDto> findByCategoryId(Long categoryId) {
         if (!categoryRepo.existsById(categoryId))
             throw new NotFoundException("Categoría no encontrada");
@@ -128,6 +416,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional
     public ProductResponseDto update(Long id, UpdateProductDto dto, UserDetailsImpl currentUser) {
         ProductEntity existing = productRepo.findById(id)
                 .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
@@ -138,25 +427,236 @@ public class ProductServiceImpl implements ProductService {
         Product product = Product.fromEntity(existing);
         product.update(dto);
 
-        ProductEntity updated = product.toEntity(existing.getOwner(), categories);
-        updated.setId(id);
-
-        ProductEntity saved = productRepo.save(updated);
+        ProductEntity saved = applyUpdate(existing, product, categories);
         return toResponseDto(saved);
     }
 
     @Override
+    @Transactional
+    public void partialUpdate(Long id, PartialUpdateProductDto dto, UserDetailsImpl currentUser) {
+        if (dto.name == null && dto.price == null && dto.description == null && dto.categoryIds == null) {
+            throw new BadRequestException("Debe enviar al menos un campo a actualizar");
+        }
+
+        // Con categorías se necesita la entidad para aplicar el diff del join table
+        if (dto.categoryIds != null) {
+            ProductEntity existing = productRepo.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
+            validateOwnership(existing, currentUser);
+
+            Set<CategoryEntity> categories = validateAndGetCategories(dto.categoryIds);
+            Product product = Product.fromEntity(existing).partialUpdate(dto);
+            applyUpdate(existing, product, categories);
+            return;
+        }
+
+        // Sin categorías: solo se consulta el owner y se emite un UPDATE dirigido
+        Long ownerId = productRepo.findOwnerIdById(id)
+                .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
+        validateOwnership(ownerId, currentUser);
+
+        // El resumen de estadísticas solo cambia si cambia el precio
+        Double oldPrice = dto.price != null ? productRepo.findPriceById(id).orElseThrow() : null;
+
+        productRepo.partialUpdate(id, dto.name, dto.price, dto.description, LocalDateTime.now());
+        publishChange(ProductChangeType.UPDATED, id);
+
+        if (oldPrice != null) {
+            Set<Long> categoryIds = productRepo.findCategoryIdsById(id);
+            statsService.onUpdated(ownerId, oldPrice, dto.price, categoryIds, categoryIds);
+        }
+    }
+
+    @Override
+    @Transactional
     public void delete(Long id, UserDetailsImpl currentUser) {
         ProductEntity product = productRepo.findById(id)
                 .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
 
         validateOwnership(product, currentUser);
 
-        productRepo.deleteById(id);
+        Long ownerId = product.getOwner().getId();
+        Double price = product.getPrice();
+        Set<Long> categoryIds = categoryIds(product.getCategories());
+
+        productRepo.delete(product);
+        tombstoneRepo.save(new ProductTombstoneEntity(id, LocalDateTime.now()));
+        // flush: el recálculo de mínimos/máximos no debe ver el producto borrado
+        productRepo.flush();
+        statsService.onDeleted(ownerId, categoryIds, price);
+        // Las ediciones cambian updatedAt (nueva versión); el borrado no
+        jsonCache.evict(id);
+        publishChange(ProductChangeType.DELETED, id);
+    }
+
+    // ================== OPERACIONES MASIVAS ==================
+
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * Ajuste de precios set-based: un UPDATE por bloque de IDs, cada uno en su
+     * propia transacción (sin @Transactional aquí a propósito)
+     */
+    @Override
+    public BulkUpdateResultDto adjustPrices(BulkPriceAdjustmentDto dto) {
+        validateFilterParameters(dto.minPrice, dto.maxPrice);
+        if (dto.categoryId != null && !categoryRepo.existsById(dto.categoryId)) {
+            throw new NotFoundException("Categoría no encontrada con ID: " + dto.categoryId);
+        }
+        if (dto.ownerId != null && !userRepo.existsById(dto.ownerId)) {
+            throw new NotFoundException("Usuario no encontrado con ID: " + dto.ownerId);
+        }
+
+        double factor = 1.0;
+        double delta = 0.0;
+        if (dto.mode == BulkPriceAdjustmentDto.Mode.PERCENT) {
+            if (dto.value <= -100) {
+                throw new BadRequestException("El porcentaje debe ser mayor a -100");
+            }
+            factor = 1 + dto.value / 100.0;
+        } else {
+            delta = dto.value;
+        }
+
+        Long minId = productRepo.findMinId();
+        Long maxId = productRepo.findMaxId();
+        if (minId == null) {
+            return new BulkUpdateResultDto(0, 0);
+        }
+
+        int chunkSize = dto.chunkSize != null ? dto.chunkSize : DEFAULT_CHUNK_SIZE;
+        long affected = 0;
+        int chunks = 0;
+
+        for (long from = minId; from <= maxId; from += chunkSize) {
+            long to = Math.min(from + chunkSize - 1, maxId);
+            // Cada tramo confirma por separado: su updatedAt es la hora del
+            // tramo, así /sync (safety-lag) no lo da por visible antes de tiempo
+            affected += productRepo.adjustPriceInRange(from, to, factor, delta,
+                    dto.ownerId, dto.minPrice, dto.maxPrice, dto.categoryId, LocalDateTime.now());
+            chunks++;
+        }
+
+        // Tras un cambio masivo es más barato recalcular el resumen completo
+        if (affected > 0) {
+            statsService.rebuildAll();
+            publishChange(ProductChangeType.BULK_UPDATED, null);
+        }
+
+        return new BulkUpdateResultDto(affected, chunks);
+    }
+
+    @Override
+    public void rebuildStats() {
+        statsService.rebuildAll();
     }
 
     // ================== HELPERS Y VALIDACIONES ==================
 
+    /**
+     * Mide la latencia de cada consulta paginada por modo de conteo
+     * (métrica products.page.query)
+     */
+    private <T> T timed(String query, CountMode countMode, Supplier<T> supplier) {
+        return Timer.builder("products.page.query")
+                .tag("query", query)
+                .tag("countMode", countMode.value())
+                .register(meterRegistry)
+                .record(supplier);
+    }
+
+    /**
+     * El feed SSE lo recibe después del commit (ProductChangeFeed)
+     */
+    private void publishChange(ProductChangeType type, Long productId) {
+        eventPublisher.publishEvent(new ProductChangedEvent(type, productId));
+    }
+
+    /**
+     * Comparte la carga con las peticiones idénticas en curso si el
+     * coalescing está activo (products.coalescing.enabled). La carga abre
+     * su propia transacción de solo lectura. Los resultados compartidos no
+     * se modifican después: controller y mappers solo los leen.
+     *
+     * La clave lleva el destino de la lectura: un usuario que acaba de
+     * escribir (read-your-writes) no recibe el resultado de una réplica
+     * cargado por otro, y su carga va al primario aunque la ventana venza
+     * mientras espera.
+     */
+    private <T> T coalesced(SingleFlight flights, String key, Supplier<T> loader) {
+        if (flights == null) {
+            return loader.get();
+        }
+        if (readRouting.readsFromPrimary()) {
+            return flights.execute("primary|" + key, () -> ReadRouting.onPrimary(loader));
+        }
+        return flights.execute("replica|" + key, loader);
+    }
+
+    /**
+     * Qué filtros trae la búsqueda, para las métricas de la caché
+     */
+    private static String searchShape(String name, Double minPrice, Double maxPrice, Long categoryId) {
+        List<String> parts = new ArrayList<>();
+        if (name != null) {
+            parts.add("name");
+        }
+        if (categoryId != null) {
+            parts.add("category");
+        }
+        if (minPrice != null || maxPrice != null) {
+            parts.add("price");
+        }
+        return parts.isEmpty() ? "none" : String.join("+", parts);
+    }
+
+    private static String fieldsKey(ProductFields fields) {
+        return String.join(",", new TreeSet<>(fields.names()));
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private <T> Page<T> withTotal(Slice<T> slice, long total) {
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    private String countKey(String scope, String name, Double minPrice, Double maxPrice, Long categoryId) {
+        return scope + "|" + (name == null ? "" : name.toLowerCase()) + "|" + minPrice + "|" + maxPrice
+                + "|" + categoryId;
+    }
+
+    /**
+     * Modifica la entidad administrada: el dirty checking genera un UPDATE
+     * solo con las columnas cambiadas y el join table recibe el diff
+     */
+    private ProductEntity applyUpdate(ProductEntity existing, Product product, Set<CategoryEntity> categories) {
+        Double oldPrice = existing.getPrice();
+        Set<Long> oldCategoryIds = categoryIds(existing.getCategories());
+
+        existing.setName(product.getName());
+        existing.setPrice(product.getPrice());
+        existing.setDescription(product.getDescription());
+        existing.syncCategories(categories);
+
+        // flush para que @PreUpdate refresque updatedAt antes de mapear la
+        // respuesta y para que el resumen de estadísticas vea los cambios
+        ProductEntity saved = productRepo.saveAndFlush(existing);
+        statsService.onUpdated(saved.getOwner().getId(), oldPrice, saved.getPrice(),
+                oldCategoryIds, categoryIds(categories));
+        publishChange(ProductChangeType.UPDATED, saved.getId());
+        return saved;
+    }
+
+    private Set<Long> categoryIds(Set<CategoryEntity> categories) {
+        Set<Long> ids = new HashSet<>();
+        for (CategoryEntity category : categories) {
+            ids.add(category.getId());
+        }
+        return ids;
+    }
+
     private Pageable createPageable(int page, int size, String[] sort) {
         if (page < 0)
             throw new BadRequestException("La página debe ser mayor o igual a 0");
@@ -216,6 +716,25 @@ public class ProductServiceImpl implements ProductService {
             throw new BadRequestException("El precio máximo debe ser mayor al mínimo");
     }
 
+    /**
+     * El histograma tiene un bucket por cada ancho dentro del rango de
+     * precios (el de los filtros o, sin maxPrice, hasta el mayor precio del
+     * catálogo): un ancho muy pequeño generaría miles de filas
+     */
+    private void validateBucketWidth(Double minPrice, Double maxPrice, double bucketWidth) {
+        if (!Double.isFinite(bucketWidth) || bucketWidth <= 0) {
+            throw new BadRequestException("El ancho del bucket debe ser mayor a 0");
+        }
+        double from = minPrice != null ? minPrice : 0;
+        double to = maxPrice != null ? maxPrice : Objects.requireNonNullElse(productRepo.findMaxPrice(), 0.0);
+        double buckets = Math.floor(to / bucketWidth) - Math.floor(from / bucketWidth) + 1;
+        if (buckets > maxFacetBuckets) {
+            double minWidth = Math.ceil((to - from) / (maxFacetBuckets - 1) * 100) / 100;
+            throw new BadRequestException("El ancho del bucket genera demasiados buckets para el rango de precios "
+                    + "(máximo " + maxFacetBuckets + "); use bucketWidth >= " + minWidth);
+        }
+    }
+
     private Set<CategoryEntity> validateAndGetCategories(Set<Long> categoryIds) {
         if (categoryIds == null || categoryIds.isEmpty()) {
             return new HashSet<>();
@@ -229,6 +748,14 @@ public class ProductServiceImpl implements ProductService {
     }
 
     private ProductResponseDto toResponseDto(ProductEntity entity) {
+        return toResponseDto(entity, ProductFields.ALL);
+    }
+
+    /**
+     * Solo toca las relaciones pedidas: si user / categories no están en
+     * fields no se inicializa el proxy del owner ni la colección LAZY
+     */
+    private ProductResponseDto toResponseDto(ProductEntity entity, ProductFields fields) {
         ProductResponseDto dto = new ProductResponseDto();
         dto.id = entity.getId();
         dto.name = entity.getName();
@@ -237,32 +764,50 @@ public class ProductServiceImpl implements ProductService {
         dto.createdAt = entity.getCreatedAt();
         dto.updatedAt = entity.getUpdatedAt();
 
-        ProductResponseDto.UserSummaryDto ownerDto = new ProductResponseDto.UserSummaryDto();
-        ownerDto.id = entity.getOwner().getId();
-        ownerDto.name = entity.getOwner().getName();
-        ownerDto.email = entity.getOwner().getEmail();
-
-        List<CategoryResponseDto> categoryDtos = new ArrayList<>();
-        if (entity.getCategories() != null) {
-            for (CategoryEntity categoryEntity : entity.getCategories()) {
-                CategoryResponseDto categoryDto = new CategoryResponseDto();
-                categoryDto.id = categoryEntity.getId();
-                categoryDto.name = categoryEntity.getName();
-                categoryDtos.add(categoryDto);
+        if (fields.includes(ProductFields.USER)) {
+            ProductResponseDto.UserSummaryDto ownerDto = new ProductResponseDto.UserSummaryDto();
+            ownerDto.id = entity.getOwner().getId();
+            ownerDto.name = entity.getOwner().getName();
+            ownerDto.email = entity.getOwner().getEmail();
+            dto.user = ownerDto;
+        }
+
+        if (fields.includes(ProductFields.CATEGORIES)) {
+            List<CategoryResponseDto> categoryDtos = new ArrayList<>();
+            if (entity.getCategories() != null) {
+                for (CategoryEntity categoryEntity : entity.getCategories()) {
+                    CategoryResponseDto categoryDto = new CategoryResponseDto();
+                    categoryDto.id = categoryEntity.getId();
+                    categoryDto.name = categoryEntity.getName();
+                    categoryDtos.add(categoryDto);
+                }
             }
+            dto.categories = categoryDtos;
         }
-        dto.user = ownerDto;
-        dto.categories = categoryDtos;
+        return dto;
+    }
+
+    private ProductResponseDto toResponseDto(ProductSummaryView view) {
+        ProductResponseDto dto = new ProductResponseDto();
+        dto.id = view.getId();
+        dto.name = view.getName();
+        dto.price = view.getPrice();
+        dto.createdAt = view.getCreatedAt();
+        dto.updatedAt = view.getUpdatedAt();
         return dto;
     }
 
     private void validateOwnership(ProductEntity product, UserDetailsImpl currentUser) {
+        validateOwnership(product.getOwner().getId(), currentUser);
+    }
+
+    private void validateOwnership(Long ownerId, UserDetailsImpl currentUser) {
 
         if (hasAnyRole(currentUser, "ROLE_ADMIN", "ROLE_MODERATOR")) {
             return;
         }
 
-        if (!product.getOwner().getId().equals(currentUser.getId())) {
+        if (!ownerId.equals(currentUser.getId())) {
             throw new AccessDeniedException("No puedes modificar productos ajenos");
         }
     }
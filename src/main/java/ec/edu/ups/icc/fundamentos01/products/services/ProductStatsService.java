@@ -0,0 +1,143 @@
+package ec.edu.ups.icc.fundamentos01.products.services;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductStatsDto;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductStatsModel;
+import ec.edu.ups.icc.fundamentos01.products.repository.CategoryProductStatsRepository;
+import ec.edu.ups.icc.fundamentos01.products.repository.OwnerProductStatsRepository;
+
+/**
+ * Mantiene las tablas resumen owner_product_stats y category_product_stats.
+ *
+ * Los métodos on* se ejecutan dentro de la transacción de la escritura del
+ * producto, así el resumen nunca queda desfasado respecto a products.
+ * Las operaciones masivas usan rebuild*(), que recalcula con un GROUP BY.
+ */
+@Service
+public class ProductStatsService {
+
+    private final OwnerProductStatsRepository ownerStatsRepo;
+    private final CategoryProductStatsRepository categoryStatsRepo;
+
+    public ProductStatsService(OwnerProductStatsRepository ownerStatsRepo,
+            CategoryProductStatsRepository categoryStatsRepo) {
+        this.ownerStatsRepo = ownerStatsRepo;
+        this.categoryStatsRepo = categoryStatsRepo;
+    }
+
+    // ================== MANTENIMIENTO INCREMENTAL ==================
+
+    @Transactional
+    public void onCreated(Long ownerId, Collection<Long> categoryIds, Double price) {
+        ownerStatsRepo.addProduct(ownerId, price);
+        if (!categoryIds.isEmpty()) {
+            categoryStatsRepo.addProduct(categoryIds, price);
+        }
+    }
+
+    /**
+     * Llamar después de hacer flush del DELETE del producto
+     */
+    @Transactional
+    public void onDeleted(Long ownerId, Collection<Long> categoryIds, Double price) {
+        ownerStatsRepo.removeProduct(ownerId, price);
+        if (!categoryIds.isEmpty()) {
+            categoryStatsRepo.removeProduct(categoryIds, price);
+        }
+    }
+
+    /**
+     * Llamar después de hacer flush del UPDATE del producto y de sus
+     * categorías. Aplica solo la diferencia de precio y de categorías.
+     */
+    @Transactional
+    public void onUpdated(Long ownerId, Double oldPrice, Double newPrice,
+            Set<Long> oldCategoryIds, Set<Long> newCategoryIds) {
+
+        boolean priceChanged = !oldPrice.equals(newPrice);
+
+        if (priceChanged) {
+            ownerStatsRepo.removeProduct(ownerId, oldPrice);
+            ownerStatsRepo.addProduct(ownerId, newPrice);
+        }
+
+        Set<Long> removed = new HashSet<>(oldCategoryIds);
+        removed.removeAll(newCategoryIds);
+        Set<Long> added = new HashSet<>(newCategoryIds);
+        added.removeAll(oldCategoryIds);
+        Set<Long> kept = new HashSet<>(oldCategoryIds);
+        kept.retainAll(newCategoryIds);
+
+        if (!removed.isEmpty()) {
+            categoryStatsRepo.removeProduct(removed, oldPrice);
+        }
+        if (!added.isEmpty()) {
+            categoryStatsRepo.addProduct(added, newPrice);
+        }
+        if (priceChanged && !kept.isEmpty()) {
+            categoryStatsRepo.removeProduct(kept, oldPrice);
+            categoryStatsRepo.addProduct(kept, newPrice);
+        }
+    }
+
+    // ================== RECONSTRUCCIÓN (REPARACIÓN) ==================
+
+    @Transactional
+    public void rebuildAll() {
+        rebuildOwners();
+        rebuildCategories();
+    }
+
+    @Transactional
+    public void rebuildOwners() {
+        ownerStatsRepo.deleteAllRows();
+        ownerStatsRepo.rebuild();
+    }
+
+    @Transactional
+    public void rebuildCategories() {
+        categoryStatsRepo.deleteAllRows();
+        categoryStatsRepo.rebuild();
+    }
+
+    // ================== LECTURAS ==================
+
+    @Transactional(readOnly = true)
+    public ProductStatsDto getOwnerStats(Long ownerId) {
+        return ownerStatsRepo.findById(ownerId)
+                .map(stats -> toDto(ownerId, stats))
+                .orElseGet(() -> emptyStats(ownerId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductStatsDto> getCategoryStats() {
+        return categoryStatsRepo.findAll().stream()
+                .filter(stats -> stats.getProductCount() > 0)
+                .map(stats -> toDto(stats.getCategoryId(), stats))
+                .toList();
+    }
+
+    private ProductStatsDto toDto(Long id, ProductStatsModel stats) {
+        ProductStatsDto dto = new ProductStatsDto();
+        dto.id = id;
+        dto.count = stats.getProductCount();
+        dto.minPrice = stats.getMinPrice();
+        dto.maxPrice = stats.getMaxPrice();
+        dto.avgPrice = stats.getAvgPrice();
+        return dto;
+    }
+
+    private ProductStatsDto emptyStats(Long id) {
+        ProductStatsDto dto = new ProductStatsDto();
+        dto.id = id;
+        return dto;
+    }
+
+}
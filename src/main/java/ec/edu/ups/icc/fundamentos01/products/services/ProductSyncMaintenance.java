@@ -0,0 +1,54 @@
+package ec.edu.ups.icc.fundamentos01.products.services;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductTombstoneRepository;
+
+/**
+ * Mantenimiento de la sincronización incremental (/api/products/sync)
+ * - Al arrancar: completa updatedAt en productos creados antes de que se
+ *   llenara al crear (si no, nunca aparecerían en el delta)
+ * - Periódicamente: purga los tombstones más viejos que la retención; un
+ *   token anterior a ella recibe reset=true
+ */
+@Component
+public class ProductSyncMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSyncMaintenance.class);
+
+    private final ProductRepository productRepo;
+    private final ProductTombstoneRepository tombstoneRepo;
+    private final int retentionDays;
+
+    public ProductSyncMaintenance(ProductRepository productRepo, ProductTombstoneRepository tombstoneRepo,
+            @Value("${products.sync.tombstone-retention-days:30}") int retentionDays) {
+        this.productRepo = productRepo;
+        this.tombstoneRepo = tombstoneRepo;
+        this.retentionDays = retentionDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillUpdatedAt() {
+        int updated = productRepo.backfillUpdatedAt();
+        if (updated > 0) {
+            logger.info("updatedAt completado en {} productos para la sincronización", updated);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${products.sync.purge-interval:3600000}")
+    public void purgeTombstones() {
+        int purged = tombstoneRepo.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            logger.info("Tombstones de productos purgados: {}", purged);
+        }
+    }
+}
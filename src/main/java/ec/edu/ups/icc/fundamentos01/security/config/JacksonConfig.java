@@ -1,22 +1,61 @@
 package ec.edu.ups.icc.fundamentos01.security.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.module.blackbird.BlackbirdModule;
+
+import org.springframework.boot.jackson.autoconfigure.JsonMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
 
 @Configuration
 public class JacksonConfig {
+
+    /**
+     * Ajustes del JsonMapper (Jackson 3) que crea Spring Boot: es el que usa
+     * el convertidor JSON de Spring MVC y el que se inyecta en ProductJsonCache,
+     * CompressedResponseCache, etc. Las fechas ya salen en ISO-8601 por
+     * defecto en Jackson 3.
+     */
+    @Bean
+    public JsonMapperBuilderCustomizer jsonMapperCustomizer() {
+        return JacksonConfig::configure;
+    }
+
+    // ============== FORMATOS BINARIOS (negociados por Accept) ==============
+    // Mismos módulos y features que el JsonMapper para que los DTOs se
+    // serialicen igual en todos los formatos
+    // Comparación de tamaño y throughput: src/jmh/.../BinaryFormatsBenchmark
+
+    @Bean
+    public JacksonCborHttpMessageConverter cborHttpMessageConverter() {
+        return new JacksonCborHttpMessageConverter(configure(CBORMapper.builder()).build());
+    }
+
     @Bean
-    @Primary
-    public ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-        return mapper;
+    public JacksonSmileHttpMessageConverter smileHttpMessageConverter() {
+        return new JacksonSmileHttpMessageConverter(configure(SmileMapper.builder()).build());
+    }
+
+    @Bean
+    public MessagePackHttpMessageConverter messagePackHttpMessageConverter() {
+        return new MessagePackHttpMessageConverter();
+    }
+
+    /**
+     * BlackbirdModule reemplaza el acceso por reflexión a los campos públicos
+     * de los DTOs por accesores generados (LambdaMetafactory)
+     * Comparación: src/jmh/.../ProductSerializationBenchmark
+     */
+    public static <M extends ObjectMapper, B extends MapperBuilder<M, B>> B configure(B builder) {
+        return builder
+                .addModule(new BlackbirdModule())
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
     }
 
 }
@@ -0,0 +1,42 @@
+package ec.edu.ups.icc.fundamentos01.security.config;
+
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Convertidor MessagePack (Accept: application/x-msgpack).
+ *
+ * Sigue sobre Jackson 2 (AbstractJackson2HttpMessageConverter, deprecado
+ * en Spring 7) porque jackson-dataformat-msgpack no tiene versión para
+ * Jackson 3; CBOR y Smile ya usan los convertidores de Jackson 3. El
+ * ObjectMapper replica lo que JacksonConfig aplica al JsonMapper (fechas
+ * ISO-8601, Blackbird) para que los DTOs salgan igual que en JSON.
+ */
+@SuppressWarnings("removal")
+public class MessagePackHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public static final MediaType APPLICATION_MSGPACK = new MediaType("application", "x-msgpack");
+
+    public MessagePackHttpMessageConverter() {
+        this(mapper());
+    }
+
+    public MessagePackHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper, APPLICATION_MSGPACK);
+    }
+
+    public static ObjectMapper mapper() {
+        ObjectMapper mapper = new ObjectMapper(new MessagePackFactory());
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new BlackbirdModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        return mapper;
+    }
+}
@@ -1,13 +1,18 @@
 package ec.edu.ups.icc.fundamentos01.security.repository;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import ec.edu.ups.icc.fundamentos01.security.models.RoleEntity;
 import ec.edu.ups.icc.fundamentos01.security.models.RoleName;
 
+import jakarta.persistence.QueryHint;
+
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<RoleEntity, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<RoleEntity> findByName(RoleName name);
 
     boolean existsByName(RoleName name);
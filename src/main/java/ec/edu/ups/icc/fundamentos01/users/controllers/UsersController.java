@@ -1,7 +1,9 @@
 package ec.edu.ups.icc.fundamentos01.users.controllers;
 
-import java.util.List;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,8 +15,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import ec.edu.ups.icc.fundamentos01.core.dtos.PageResponseDto;
+import ec.edu.ups.icc.fundamentos01.core.web.PageLinks;
 import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductStatsDto;
 import ec.edu.ups.icc.fundamentos01.users.dtos.CreateUserDto;
 import ec.edu.ups.icc.fundamentos01.users.dtos.PartialUpdateUserDto;
 import ec.edu.ups.icc.fundamentos01.users.dtos.UpdateUserDto;
@@ -34,8 +40,14 @@ public class UsersController {
     }
 
     @GetMapping
-    public List<UserResponseDto> findAll() {
-        return userService.findAll();
+    public ResponseEntity<PageResponseDto<UserResponseDto>> findAll(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        Page<UserResponseDto> users = userService.findAll(page, size);
+        PageLinks links = PageLinks.forPage(users);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, links.header())
+                .body(PageResponseDto.of(users, links));
     }
 
     @GetMapping("/{id}")
@@ -63,33 +75,73 @@ public class UsersController {
         userService.delete(id);
     }
 
+    /**
+     * Productos del usuario con paginación keyset
+     * Ejemplo: GET /api/users/5/products?size=20&after=120
+     * (after = último ID recibido en la página anterior)
+     */
     @GetMapping("/{id}/products")
-    public ResponseEntity<List<ProductResponseDto>> getProducts(
-            @PathVariable("id") Long id) {
+    public ResponseEntity<PageResponseDto<ProductResponseDto>> getProducts(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+
+        Slice<ProductResponseDto> products = userService.getProductsByUserId(id, after, size);
+        Long nextAfter = products.hasContent()
+                ? products.getContent().get(products.getNumberOfElements() - 1).id
+                : null;
+        PageLinks links = PageLinks.forKeyset(products, "after", nextAfter);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, links.header())
+                .body(PageResponseDto.of(products, links));
+    }
 
-        List<ProductResponseDto> products = userService.getProductsByUserId(id);
-        return ResponseEntity.ok(products);
+    /**
+     * Estadísticas de precios de los productos del usuario
+     * (count, min, max, promedio) servidas desde la tabla resumen
+     */
+    @GetMapping("/{id}/product-stats")
+    public ResponseEntity<ProductStatsDto> getProductStats(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(userService.getProductStats(id));
+    }
+
+    /**
+     * Exportación completa en streaming (arreglo JSON)
+     * El usuario se valida antes: dentro del body el 200 ya está enviado
+     */
+    @GetMapping("/{id}/products/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@PathVariable("id") Long id) {
+        userService.validateUserExists(id);
+        StreamingResponseBody body = out -> userService.exportProductsByUserId(id, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     // ============== ENDPOINT AVANZADO: PRODUCTOS CON FILTROS ==============
 
     /**
-     * Obtiene productos de un usuario con filtros opcionales
+     * Obtiene productos de un usuario con filtros opcionales y paginación
      * Ejemplo: GET
-     * /api/users/5/products-v2?name=laptop&minPrice=500&maxPrice=2000&categoryId=3
+     * /api/users/5/products-v2?name=laptop&minPrice=500&maxPrice=2000&categoryId=3&page=0&size=20
      */
 
     @GetMapping("/{id}/products-v2")
-    public ResponseEntity<List<ProductResponseDto>> getProductsWithFilters(
+    public ResponseEntity<PageResponseDto<ProductResponseDto>> getProductsWithFilters(
             @PathVariable("id") Long id,
             @RequestParam(value = "name", required = false) String name,
             @RequestParam(value = "minPrice", required = false) Double minPrice,
             @RequestParam(value = "maxPrice", required = false) Double maxPrice,
-            @RequestParam(value = "categoryId", required = false) Long categoryId) {
+            @RequestParam(value = "categoryId", required = false) Long categoryId,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
 
-        List<ProductResponseDto> products = userService.getProductsByUserIdWithFilters(
-                id, name, minPrice, maxPrice, categoryId);
+        Page<ProductResponseDto> products = userService.getProductsByUserIdWithFilters(
+                id, name, minPrice, maxPrice, categoryId, page, size);
 
-        return ResponseEntity.ok(products);
+        PageLinks links = PageLinks.forPage(products);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, links.header())
+                .body(PageResponseDto.of(products, links));
     }
 }
@@ -28,7 +28,11 @@ public class UserEntity extends BaseModel {
      * Un usuario puede tener múltiples productos
      */
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    /**
+     * Relación Many-to-Many con Role (LAZY)
+     * Solo la autenticación necesita los roles: allí se cargan con fetch join
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<RoleEntity> roles = new HashSet<>();
 
@@ -2,7 +2,11 @@ package ec.edu.ups.icc.fundamentos01.users.repository;
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +18,17 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     Optional<UserEntity> findByEmail(String email);
 
+    /**
+     * Usuario con sus roles en una sola consulta (flujo de autenticación)
+     */
+    @Query("SELECT u FROM UserEntity u LEFT JOIN FETCH u.roles WHERE u.email = :email")
+    Optional<UserEntity> findWithRolesByEmail(@Param("email") String email);
+
+    /**
+     * Listado paginado proyectado a id, name y email
+     */
+    Page<UserSummaryView> findAllProjectedBy(Pageable pageable);
+
     Optional<ProductEntity> findByName(String name);
 
     boolean existsByEmail(String email);
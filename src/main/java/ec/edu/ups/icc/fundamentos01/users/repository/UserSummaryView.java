@@ -0,0 +1,15 @@
+package ec.edu.ups.icc.fundamentos01.users.repository;
+
+/**
+ * Proyección para listados: solo selecciona id, name y email
+ * (sin password, roles ni productos)
+ */
+public interface UserSummaryView {
+
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+}
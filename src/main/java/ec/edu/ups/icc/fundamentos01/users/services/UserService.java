@@ -1,8 +1,13 @@
 package ec.edu.ups.icc.fundamentos01.users.services;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductStatsDto;
 import ec.edu.ups.icc.fundamentos01.users.dtos.CreateUserDto;
 import ec.edu.ups.icc.fundamentos01.users.dtos.PartialUpdateUserDto;
 import ec.edu.ups.icc.fundamentos01.users.dtos.UpdateUserDto;
@@ -10,7 +15,7 @@ import ec.edu.ups.icc.fundamentos01.users.dtos.UserResponseDto;
 
 public interface UserService {
 
-    List<UserResponseDto> findAll();
+    Page<UserResponseDto> findAll(int page, int size);
 
     UserResponseDto findOne(int id);
 
@@ -22,12 +27,23 @@ public interface UserService {
 
     void delete(int id);
 
-    List<ProductResponseDto> getProductsByUserId(Long userId);
+    Slice<ProductResponseDto> getProductsByUserId(Long userId, Long afterId, int size);
 
-    List<ProductResponseDto> getProductsByUserIdWithFilters(
+    Page<ProductResponseDto> getProductsByUserIdWithFilters(
             Long userId,
             String name,
             Double minPrice,
             Double maxPrice,
-            Long categoryId);
+            Long categoryId,
+            int page,
+            int size);
+
+    /**
+     * NotFoundException si el usuario no existe
+     */
+    void validateUserExists(Long userId);
+
+    void exportProductsByUserId(Long userId, OutputStream out) throws IOException;
+
+    ProductStatsDto getProductStats(Long userId);
 }
@@ -2,38 +2,79 @@ package ec.edu.ups.icc.fundamentos01.users.services;
 
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
 import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
+import ec.edu.ups.icc.fundamentos01.core.invalidation.CachedEntityType;
+import ec.edu.ups.icc.fundamentos01.core.invalidation.InvalidationBus;
 import ec.edu.ups.icc.fundamentos01.exceptions.domain.ConflictException;
 import ec.edu.ups.icc.fundamentos01.exceptions.domain.NotFoundException;
 import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductStatsDto;
 import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
 import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import ec.edu.ups.icc.fundamentos01.products.services.ProductJsonCache;
+import ec.edu.ups.icc.fundamentos01.products.services.CatalogVersion;
+import ec.edu.ups.icc.fundamentos01.products.services.ProductStatsService;
 import ec.edu.ups.icc.fundamentos01.users.dtos.*;
 import ec.edu.ups.icc.fundamentos01.users.models.UserEntity;
 import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
+import ec.edu.ups.icc.fundamentos01.users.repository.UserSummaryView;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
+import jakarta.persistence.EntityManager;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+    // Tamaño máximo de página para los listados de productos de un usuario
+    private static final int MAX_PAGE_SIZE = 100;
+    // Productos por bloque keyset al exportar (se escriben y se limpia el contexto)
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
+    private final ProductStatsService statsService;
+    private final ProductJsonCache productJsonCache;
+    private final CatalogVersion catalogVersion;
+    private final InvalidationBus invalidationBus;
 
-    public UserServiceImpl(UserRepository userRepository, ProductRepository productRepository) {
+    public UserServiceImpl(UserRepository userRepository, ProductRepository productRepository,
+            EntityManager entityManager, JsonMapper jsonMapper, ProductStatsService statsService,
+            ProductJsonCache productJsonCache, CatalogVersion catalogVersion,
+            InvalidationBus invalidationBus) {
         this.userRepository = userRepository;
         this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.jsonMapper = jsonMapper;
+        this.statsService = statsService;
+        this.productJsonCache = productJsonCache;
+        this.catalogVersion = catalogVersion;
+        this.invalidationBus = invalidationBus;
     }
 
     @Override
-    public List<UserResponseDto> findAll() {
-        return userRepository.findAll().stream()
-                .map(this::toResponseDto)
-                .toList();
+    @Transactional(readOnly = true)
+    public Page<UserResponseDto> findAll(int page, int size) {
+        validatePageSize(size);
+        if (page < 0) {
+            throw new BadRequestException("La página debe ser mayor o igual a 0");
+        }
+        return userRepository.findAllProjectedBy(PageRequest.of(page, size, Sort.by("id")))
+                .map(this::toResponseDto);
     }
 
     // CORRECCIÓN 1: Devolver UserResponseDto en lugar de Object
@@ -46,7 +87,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserResponseDto create(CreateUserDto dto) {
-        if (userRepository.findByEmail(dto.email).isPresent()) {
+        if (userRepository.existsByEmail(dto.email)) {
             throw new ConflictException("El email ya está registrado: " + dto.email);
         }
 
@@ -68,7 +109,12 @@ public class UserServiceImpl implements UserService {
         user.setName(dto.name);
         user.setPassword(dto.password);
 
-        return toResponseDto(userRepository.save(user));
+        UserResponseDto response = toResponseDto(userRepository.save(user));
+        // El nombre del owner va embebido en el JSON cacheado de sus productos
+        productJsonCache.invalidateAll();
+        catalogVersion.increment();
+        invalidationBus.publish(CachedEntityType.USER, (long) id);
+        return response;
     }
 
     // CORRECCIÓN 3: Devolver UserResponseDto en lugar de Object
@@ -82,7 +128,13 @@ public class UserServiceImpl implements UserService {
         if (dto.password != null)
             user.setPassword(dto.password);
 
-        return toResponseDto(userRepository.save(user));
+        UserResponseDto response = toResponseDto(userRepository.save(user));
+        if (dto.name != null) {
+            productJsonCache.invalidateAll();
+            catalogVersion.increment();
+            invalidationBus.publish(CachedEntityType.USER, (long) id);
+        }
+        return response;
     }
 
     // CORRECCIÓN 4: Cambiar a void (seguramente así está en la interfaz) y quitar
@@ -93,35 +145,93 @@ public class UserServiceImpl implements UserService {
             throw new NotFoundException("No se puede eliminar. Usuario no encontrado con ID: " + id);
         }
         userRepository.deleteById((long) id);
+        invalidationBus.publish(CachedEntityType.USER, (long) id);
     }
 
     // ================= MÉTODOS RELACIONADOS CON PRODUCTOS =================
 
     @Override
-    public List<ProductResponseDto> getProductsByUserId(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("Usuario no encontrado con ID: " + userId);
+    @Transactional(readOnly = true)
+    public Slice<ProductResponseDto> getProductsByUserId(Long userId, Long afterId, int size) {
+        validateUserExists(userId);
+        validatePageSize(size);
+
+        // Siempre la "primera" página: el desplazamiento lo da afterId (keyset)
+        return productRepository.findByOwnerIdAfter(userId, afterId, PageRequest.of(0, size))
+                .map(this::mapProductToDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductResponseDto> getProductsByUserIdWithFilters(Long userId, String name, Double minPrice,
+            Double maxPrice, Long categoryId, int page, int size) {
+
+        validateUserExists(userId);
+        validatePageSize(size);
+        if (page < 0) {
+            throw new BadRequestException("La página debe ser mayor o igual a 0");
         }
-        return productRepository.findByOwnerId(userId).stream()
-                .map(this::mapProductToDto)
-                .toList();
+
+        Page<ProductEntity> result = productRepository.findByUserIdWithFilters(
+                userId, name, minPrice, maxPrice, categoryId, PageRequest.of(page, size, Sort.by("id")));
+
+        return result.map(this::mapProductToDto);
     }
 
+    /**
+     * Exporta todos los productos como un arreglo JSON escrito en streaming:
+     * la memoria usada no depende de la cantidad de productos.
+     * Se recorre en bloques keyset (findByOwnerIdAfter); las categorías de
+     * cada bloque se cargan en una sola consulta en vez de una por producto.
+     * No valida el usuario: se llama cuando la respuesta ya empezó
+     * (ver validateUserExists)
+     */
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponseDto> getProductsByUserIdWithFilters(Long userId, String name, Double minPrice,
-            Double maxPrice, Long categoryId) {
+    public void exportProductsByUserId(Long userId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            Long afterId = null;
+            Slice<ProductEntity> chunk;
+            do {
+                chunk = productRepository.findByOwnerIdAfter(userId, afterId, PageRequest.of(0, EXPORT_CHUNK_SIZE));
+                List<ProductEntity> products = chunk.getContent();
+                if (products.isEmpty()) {
+                    break;
+                }
+                // Mismas instancias del contexto: quedan con sus categorías inicializadas
+                productRepository.findAllWithRelationsByIdIn(products.stream().map(ProductEntity::getId).toList());
+                for (ProductEntity product : products) {
+                    generator.writePOJO(mapProductToDto(product));
+                }
+                afterId = products.get(products.size() - 1).getId();
+                generator.flush();
+                entityManager.clear();
+            } while (chunk.hasNext());
+            generator.writeEndArray();
+        }
+    }
 
+    /**
+     * Lectura O(1) desde la tabla resumen owner_product_stats
+     */
+    @Override
+    public ProductStatsDto getProductStats(Long userId) {
+        validateUserExists(userId);
+        return statsService.getOwnerStats(userId);
+    }
+
+    @Override
+    public void validateUserExists(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Usuario no encontrado con ID: " + userId);
         }
+    }
 
-        Page<ProductEntity> page = productRepository.findByUserIdWithFilters(
-                userId, name, minPrice, maxPrice, categoryId, Pageable.unpaged());
-
-        return page.getContent().stream()
-                .map(this::mapProductToDto)
-                .toList();
+    private void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("El tamaño debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
     }
 
     // ================= MAPPERS AUXILIARES =================
@@ -135,6 +245,14 @@ public class UserServiceImpl implements UserService {
         return dto;
     }
 
+    private UserResponseDto toResponseDto(UserSummaryView view) {
+        UserResponseDto dto = new UserResponseDto();
+        dto.id = view.getId().intValue();
+        dto.name = view.getName();
+        dto.email = view.getEmail();
+        return dto;
+    }
+
     private ProductResponseDto mapProductToDto(ProductEntity entity) {
         ProductResponseDto dto = new ProductResponseDto();
         dto.id = entity.getId();
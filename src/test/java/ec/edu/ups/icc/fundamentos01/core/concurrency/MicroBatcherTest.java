@@ -0,0 +1,123 @@
+package ec.edu.ups.icc.fundamentos01.core.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MicroBatcherTest {
+
+    // Cada tarea en su propio hilo: una carga bloqueada no frena a las demás
+    private static final Executor NEW_THREAD = command -> new Thread(command).start();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Set<Long>> batches = new CopyOnWriteArrayList<>();
+    private MicroBatcher<Long, String> batcher;
+
+    @AfterEach
+    void close() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    void keysWithinWindowShareOneLoad() {
+        batcher = batcher(this::names, Duration.ofMillis(200), 100, Duration.ofSeconds(5));
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> batcher.load(1L), NEW_THREAD);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> batcher.load(2L), NEW_THREAD);
+
+        assertThat(first.join()).isEqualTo("Producto 1");
+        assertThat(second.join()).isEqualTo("Producto 2");
+        assertThat(batches).containsExactly(Set.of(1L, 2L));
+    }
+
+    @Test
+    void fullBatchIsDispatchedBeforeWindow() {
+        batcher = batcher(this::names, Duration.ofSeconds(30), 2, Duration.ofSeconds(60));
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> batcher.load(1L), NEW_THREAD);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> batcher.load(2L), NEW_THREAD);
+
+        // Mucho antes de los 30 s de la ventana
+        assertThat(first.orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo("Producto 1");
+        assertThat(second.orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo("Producto 2");
+        assertThat(batches).containsExactly(Set.of(1L, 2L));
+        assertThat(meterRegistry.get("microbatch.size").summary().max()).isEqualTo(2);
+    }
+
+    @Test
+    void callerLoadsAloneAfterMaxWait() {
+        CountDownLatch releaseBatch = new CountDownLatch(1);
+        batcher = batcher(ids -> {
+            // La carga del lote (en el executor) queda bloqueada
+            if (!Thread.currentThread().getName().equals("test-caller")) {
+                await(releaseBatch);
+            }
+            return names(ids);
+        }, Duration.ofMillis(1), 100, Duration.ofMillis(50));
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        Thread caller = new Thread(() -> result.complete(batcher.load(7L)), "test-caller");
+        caller.start();
+
+        assertThat(result.orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo("Producto 7");
+        assertThat(meterRegistry.get("microbatch.timeouts").counter().count()).isEqualTo(1);
+        releaseBatch.countDown();
+    }
+
+    @Test
+    void loaderErrorReachesCaller() {
+        IllegalStateException error = new IllegalStateException("BD caída");
+        batcher = batcher(ids -> {
+            throw error;
+        }, Duration.ofMillis(1), 100, Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> batcher.load(1L)).isSameAs(error);
+    }
+
+    @Test
+    void missingKeyIsNull() {
+        batcher = batcher(ids -> Map.of(), Duration.ofMillis(1), 100, Duration.ofSeconds(5));
+
+        assertThat(batcher.load(1L)).isNull();
+    }
+
+    private MicroBatcher<Long, String> batcher(Function<Set<Long>, Map<Long, String>> loader,
+            Duration window, int maxSize, Duration maxWait) {
+        return new MicroBatcher<>("test", loader, NEW_THREAD, window, maxSize, maxWait, meterRegistry);
+    }
+
+    private Map<Long, String> names(Set<Long> ids) {
+        batches.add(Set.copyOf(ids));
+        Map<Long, String> rows = new HashMap<>();
+        for (Long id : ids) {
+            rows.put(id, "Producto " + id);
+        }
+        return rows;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
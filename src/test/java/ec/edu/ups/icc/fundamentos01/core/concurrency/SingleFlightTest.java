@@ -0,0 +1,120 @@
+package ec.edu.ups.icc.fundamentos01.core.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseLeader = new CountDownLatch(1);
+
+    @Test
+    void followerGetsLeaderResult() throws Exception {
+        SingleFlight flights = new SingleFlight("test", Duration.ofSeconds(5), meterRegistry);
+        CompletableFuture<String> leader = startLeader(flights, () -> "leader");
+
+        CompletableFuture<String> follower = startFollower(flights, () -> "follower");
+        releaseLeader.countDown();
+
+        assertThat(leader.get()).isEqualTo("leader");
+        assertThat(follower.get()).isEqualTo("leader");
+        assertThat(requests("leader")).isEqualTo(1);
+        assertThat(requests("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    void leaderErrorPropagatesToFollowers() throws Exception {
+        SingleFlight flights = new SingleFlight("test", Duration.ofSeconds(5), meterRegistry);
+        NotFoundException error = new NotFoundException("Producto no encontrado");
+        CompletableFuture<String> leader = startLeader(flights, () -> {
+            throw error;
+        });
+
+        CompletableFuture<String> follower = startFollower(flights, () -> "follower");
+        releaseLeader.countDown();
+
+        assertThatThrownBy(leader::join).cause().isSameAs(error);
+        assertThatThrownBy(follower::join).cause().isSameAs(error);
+    }
+
+    @Test
+    void followerLoadsItselfAfterMaxWait() throws Exception {
+        SingleFlight flights = new SingleFlight("test", Duration.ofMillis(50), meterRegistry);
+        CompletableFuture<String> leader = startLeader(flights, () -> "leader");
+
+        assertThat(flights.execute("key", () -> "follower")).isEqualTo("follower");
+        assertThat(requests("timeout")).isEqualTo(1);
+
+        releaseLeader.countDown();
+        assertThat(leader.get()).isEqualTo("leader");
+    }
+
+    @Test
+    void keyIsReleasedAfterLoad() {
+        SingleFlight flights = new SingleFlight("test", Duration.ofSeconds(5), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        flights.execute("key", loads::incrementAndGet);
+        assertThatThrownBy(() -> flights.execute("key", () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("falla");
+        })).isInstanceOf(IllegalStateException.class);
+        flights.execute("key", loads::incrementAndGet);
+
+        // No es una caché: cada llamada secuencial vuelve a cargar
+        assertThat(loads).hasValue(3);
+        assertThat(meterRegistry.get("singleflight.inflight").gauge().value()).isZero();
+    }
+
+    /**
+     * Leader que se queda dentro de la carga hasta releaseLeader
+     */
+    private CompletableFuture<String> startLeader(SingleFlight flights, Supplier<String> loader)
+            throws InterruptedException {
+        CompletableFuture<String> result = CompletableFuture.supplyAsync(() -> flights.execute("key", () -> {
+            leaderStarted.countDown();
+            try {
+                releaseLeader.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.get();
+        }));
+        leaderStarted.await();
+        return result;
+    }
+
+    /**
+     * Llamador que vuelve cuando ya está esperando al leader
+     */
+    private CompletableFuture<String> startFollower(SingleFlight flights, Supplier<String> loader) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(flights.execute("key", loader));
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        thread.start();
+        await().until(() -> thread.getState() == Thread.State.TIMED_WAITING);
+        return result;
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("singleflight.requests").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,87 @@
+package ec.edu.ups.icc.fundamentos01.core.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import ec.edu.ups.icc.fundamentos01.Fundamentos01Application;
+import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryCreateDto;
+import ec.edu.ups.icc.fundamentos01.categories.service.CategoryService;
+
+/**
+ * Dos instancias de la aplicación sobre la misma base: una categoría creada
+ * en A debe aparecer en B aunque B ya tenga findAll en la caché de
+ * consultas de Hibernate
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SecondLevelCacheInvalidationTest {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void categoryCreatedOnOtherNodeIsVisible() {
+        CategoryService categoriesA = nodeA.getBean(CategoryService.class);
+        CategoryService categoriesB = nodeB.getBean(CategoryService.class);
+
+        // Deja findAll en la caché de consultas de B
+        assertThat(names(categoriesB)).doesNotContain("Invalidada");
+        assertThat(names(categoriesB)).doesNotContain("Invalidada");
+
+        CategoryCreateDto dto = new CategoryCreateDto();
+        dto.name = "Invalidada";
+        dto.description = "Creada en el nodo A";
+        categoriesA.save(dto);
+
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(names(categoriesB)).contains("Invalidada"));
+    }
+
+    private static List<String> names(CategoryService categories) {
+        return categories.findAll().stream().map(category -> category.name).toList();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(Fundamentos01Application.class)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.jpa.show-sql=false",
+                        "server.port=0",
+                        "cache.invalidation.enabled=true",
+                        "cache.invalidation.flush-interval=50",
+                        "cache.invalidation.poll-timeout=100")
+                .run();
+    }
+}
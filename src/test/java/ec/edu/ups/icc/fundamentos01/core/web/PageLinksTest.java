@@ -0,0 +1,94 @@
+package ec.edu.ups.icc.fundamentos01.core.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class PageLinksTest {
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void middlePageHasAllRelsAndKeepsFilters() {
+        currentRequest("/api/products/search", "minPrice=10&page=2&size=5");
+
+        PageLinks links = PageLinks.forPage(new PageImpl<>(List.of(1, 2, 3, 4, 5), PageRequest.of(2, 5), 50));
+
+        assertThat(links.header()).isEqualTo(
+                "<http://localhost/api/products/search?minPrice=10&size=5&page=0>; rel=\"first\", "
+                        + "<http://localhost/api/products/search?minPrice=10&size=5&page=1>; rel=\"prev\", "
+                        + "<http://localhost/api/products/search?minPrice=10&size=5&page=3>; rel=\"next\", "
+                        + "<http://localhost/api/products/search?minPrice=10&size=5&page=9>; rel=\"last\"");
+        assertThat(links.next()).isEqualTo("http://localhost/api/products/search?minPrice=10&size=5&page=3");
+    }
+
+    @Test
+    void firstPageOfSliceHasNoPrevNorLast() {
+        currentRequest("/api/products/slice", null);
+
+        PageLinks links = PageLinks.forPage(new SliceImpl<>(List.of(1, 2), PageRequest.of(0, 2), true));
+
+        assertThat(links.header()).isEqualTo(
+                "<http://localhost/api/products/slice?page=0>; rel=\"first\", "
+                        + "<http://localhost/api/products/slice?page=1>; rel=\"next\"");
+    }
+
+    @Test
+    void lastPageHasNoNext() {
+        currentRequest("/api/products/search", "page=1&size=2");
+
+        PageLinks links = PageLinks.forPage(new PageImpl<>(List.of(3), PageRequest.of(1, 2), 3));
+
+        assertThat(links.next()).isNull();
+        assertThat(links.header()).doesNotContain("rel=\"next\"").contains("size=2&page=1>; rel=\"last\"");
+    }
+
+    @Test
+    void emptyPageHasOnlyFirst() {
+        currentRequest("/api/products/search", null);
+
+        PageLinks links = PageLinks.forPage(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+
+        assertThat(links.header()).isEqualTo("<http://localhost/api/products/search?page=0>; rel=\"first\"");
+    }
+
+    @Test
+    void keysetReplacesCursorAndFirstDropsIt() {
+        currentRequest("/api/users/5/products", "after=10&size=2");
+
+        PageLinks links = PageLinks.forKeyset(new SliceImpl<>(List.of(11, 12), PageRequest.of(0, 2), true),
+                "after", 12L);
+
+        assertThat(links.header()).isEqualTo(
+                "<http://localhost/api/users/5/products?size=2>; rel=\"first\", "
+                        + "<http://localhost/api/users/5/products?size=2&after=12>; rel=\"next\"");
+    }
+
+    @Test
+    void keysetWithoutMoreHasNoNext() {
+        currentRequest("/api/users/5/products", "after=10");
+
+        PageLinks links = PageLinks.forKeyset(new SliceImpl<>(List.of(11), PageRequest.of(0, 2), false),
+                "after", 11L);
+
+        assertThat(links.next()).isNull();
+    }
+
+    private static void currentRequest(String uri, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setQueryString(query);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
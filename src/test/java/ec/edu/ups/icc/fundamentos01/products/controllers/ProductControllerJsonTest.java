@@ -0,0 +1,150 @@
+package ec.edu.ups.icc.fundamentos01.products.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
+import ec.edu.ups.icc.fundamentos01.core.dtos.PageResponseDto;
+import ec.edu.ups.icc.fundamentos01.core.web.CompressedResponseCache;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductBatchItemDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.mappers.ProductMapper;
+import ec.edu.ups.icc.fundamentos01.products.models.CountMode;
+import ec.edu.ups.icc.fundamentos01.products.services.CatalogVersion;
+import ec.edu.ups.icc.fundamentos01.products.services.ProductChangeFeed;
+import ec.edu.ups.icc.fundamentos01.products.services.ProductJsonCache;
+import ec.edu.ups.icc.fundamentos01.products.services.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Las respuestas con fragmentos de ProductJsonCache tienen que ser byte a
+ * byte las mismas que serializar los DTOs con el convertidor JSON de MVC
+ */
+class ProductControllerJsonTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final ProductService productService = mock(ProductService.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader(HttpHeaders.ACCEPT)).thenReturn(MediaType.APPLICATION_JSON_VALUE);
+
+        ProductController controller = new ProductController(productService,
+                new ProductJsonCache(jsonMapper, new SimpleMeterRegistry(), 100),
+                new CompressedResponseCache(jsonMapper, DataSize.ofKilobytes(2)), mock(ProductChangeFeed.class),
+                new CatalogVersion(), request);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new JacksonJsonHttpMessageConverter(jsonMapper))
+                .build();
+    }
+
+    @Test
+    void getByIdMatchesDtoSerialization() throws Exception {
+        ProductResponseDto dto = product(1L, "Teclado");
+        when(productService.findById(eq(1L), any())).thenReturn(dto);
+
+        // Dos veces: la segunda sale del fragmento ya cacheado
+        for (int i = 0; i < 2; i++) {
+            assertThat(body("/api/products/1")).isEqualTo(jsonMapper.writeValueAsBytes(dto));
+        }
+    }
+
+    @Test
+    void multiGetMatchesDtoSerialization() throws Exception {
+        ProductResponseDto dto = product(1L, "Teclado");
+        ProductBatchItemDto found = new ProductBatchItemDto(1L, dto);
+        ProductBatchItemDto missing = new ProductBatchItemDto(99L, null);
+        when(productService.findByIds(anyList(), any())).thenReturn(List.of(found, missing));
+
+        byte[] expected = jsonMapper.writeValueAsBytes(List.of(
+                ProductMapper.toBatchItem(found, dto), ProductMapper.toBatchItem(missing, null)));
+        assertThat(body("/api/products?ids=1,99")).isEqualTo(expected);
+    }
+
+    @Test
+    void slicePageMatchesDtoSerialization() throws Exception {
+        List<ProductResponseDto> content = List.of(product(1L, "Teclado"), product(2L, "Mouse \"óptico\""));
+        when(productService.findAllSlice(anyInt(), anyInt(), any(), any()))
+                .thenReturn(new SliceImpl<>(content, PageRequest.of(0, 10), false));
+
+        PageResponseDto<ProductResponseDto> page = new PageResponseDto<>();
+        page.content = content;
+        page.hasNext = false;
+        assertThat(body("/api/products/slice")).isEqualTo(jsonMapper.writeValueAsBytes(page));
+    }
+
+    @Test
+    void defaultFirstPageIsServedFromCompressedCache() throws Exception {
+        List<ProductResponseDto> content = List.of(product(1L, "Teclado"), product(2L, "Mouse"));
+        when(productService.findAll(anyInt(), anyInt(), any(), any(), any()))
+                .thenReturn(new SliceImpl<>(content, PageRequest.of(0, 10), false));
+
+        // Sin sort (valor por defecto) y con ?sort=id,asc explícito
+        for (String path : List.of("/api/products/paginated", "/api/products/paginated?sort=id,asc")) {
+            MockHttpServletResponse first = response(path);
+            MockHttpServletResponse second = response(path);
+            assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+            assertThat(second.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        }
+        // Una consulta por URL: las segundas peticiones salen de la caché
+        verify(productService, times(2)).findAll(eq(0), eq(10), any(), eq(CountMode.EXACT), any());
+    }
+
+    private byte[] body(String path) throws Exception {
+        return response(path).getContentAsByteArray();
+    }
+
+    private MockHttpServletResponse response(String path) throws Exception {
+        return mockMvc.perform(get(path).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private static ProductResponseDto product(Long id, String name) {
+        ProductResponseDto dto = new ProductResponseDto();
+        dto.id = id;
+        dto.name = name;
+        dto.price = 25.5;
+        dto.description = "Descripción con acentos y \\ escapes";
+        dto.user = new ProductResponseDto.UserSummaryDto();
+        dto.user.id = 7L;
+        dto.user.name = "Ana";
+        dto.user.email = "ana@ups.edu.ec";
+        CategoryResponseDto category = new CategoryResponseDto();
+        category.id = 3L;
+        category.name = "Periféricos";
+        dto.categories = List.of(category);
+        dto.createdAt = LocalDateTime.of(2026, 1, 15, 10, 30);
+        dto.updatedAt = LocalDateTime.of(2026, 2, 1, 8, 0, 5);
+        return dto;
+    }
+}
@@ -0,0 +1,59 @@
+package ec.edu.ups.icc.fundamentos01.products.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
+
+class ProductFieldsTest {
+
+    @Test
+    void withoutParameterReturnsAll() {
+        assertThat(ProductFields.from(null)).isSameAs(ProductFields.ALL);
+        assertThat(ProductFields.from("  ")).isSameAs(ProductFields.ALL);
+        assertThat(ProductFields.ALL.isAll()).isTrue();
+    }
+
+    @Test
+    void alwaysIncludesIdInDtoOrder() {
+        ProductFields fields = ProductFields.from("price, name");
+
+        assertThat(fields.names()).containsExactly("id", "name", "price");
+        assertThat(fields.isAll()).isFalse();
+    }
+
+    @Test
+    void ignoresEmptyPartsAndDuplicates() {
+        ProductFields fields = ProductFields.from("name,,name, ");
+
+        assertThat(fields.names()).containsExactly("id", "name");
+    }
+
+    @Test
+    void everyFieldIsAll() {
+        ProductFields fields = ProductFields.from("updatedAt,createdAt,categories,user,description,price,name");
+
+        assertThat(fields).isSameAs(ProductFields.ALL);
+    }
+
+    @Test
+    void summaryOnlyWithoutDescriptionOrRelations() {
+        assertThat(ProductFields.from("name,price,createdAt").isSummaryOnly()).isTrue();
+        assertThat(ProductFields.from("name,description").isSummaryOnly()).isFalse();
+        assertThat(ProductFields.from("user").isSummaryOnly()).isFalse();
+        assertThat(ProductFields.from("categories").isSummaryOnly()).isFalse();
+        assertThat(ProductFields.ALL.isSummaryOnly()).isFalse();
+    }
+
+    @Test
+    void unknownFieldIsBadRequest() {
+        assertThatThrownBy(() -> ProductFields.from("name,password"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("password");
+        // Distingue mayúsculas, igual que las propiedades del JSON
+        assertThatThrownBy(() -> ProductFields.from("Name"))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
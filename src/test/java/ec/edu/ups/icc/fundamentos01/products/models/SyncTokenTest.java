@@ -0,0 +1,82 @@
+package ec.edu.ups.icc.fundamentos01.products.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
+
+class SyncTokenTest {
+
+    private static final LocalDateTime CHANGED_AT = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000);
+    private static final LocalDateTime COVERED_UNTIL = LocalDateTime.of(2025, 3, 14, 16, 0, 0, 123_456_000);
+
+    @Test
+    void roundTrip() {
+        SyncToken token = new SyncToken(CHANGED_AT, 42, COVERED_UNTIL);
+
+        assertThat(SyncToken.from(token.value())).isEqualTo(token);
+    }
+
+    @Test
+    void valueIsUrlSafeWithoutPadding() {
+        String value = new SyncToken(CHANGED_AT, 42, COVERED_UNTIL).value();
+
+        assertThat(value).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void truncatesToMicrosecondsLikePostgres() {
+        SyncToken token = new SyncToken(CHANGED_AT.withNano(535_897_999), 42);
+
+        SyncToken decoded = SyncToken.from(token.value());
+
+        assertThat(decoded.changedAt()).isEqualTo(CHANGED_AT);
+        assertThat(decoded.coveredUntil()).isEqualTo(CHANGED_AT);
+    }
+
+    @Test
+    void twoArgumentConstructorCoversUntilChangedAt() {
+        assertThat(new SyncToken(CHANGED_AT, 42).coveredUntil()).isEqualTo(CHANGED_AT);
+    }
+
+    @Test
+    void legacyTwoPartTokenCoversUntilChangedAt() {
+        long micros = 1_741_964_966_535_897L;
+        SyncToken token = SyncToken.from(encode(micros + ":42"));
+
+        assertThat(token.changedAt()).isEqualTo(CHANGED_AT);
+        assertThat(token.id()).isEqualTo(42);
+        assertThat(token.coveredUntil()).isEqualTo(CHANGED_AT);
+    }
+
+    @Test
+    void beforeEpochRoundTrip() {
+        SyncToken token = new SyncToken(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000), 1);
+
+        assertThat(SyncToken.from(token.value())).isEqualTo(token);
+    }
+
+    @Test
+    void emptyValueStartsFromBeginning() {
+        assertThat(SyncToken.from(null)).isEqualTo(SyncToken.START);
+        assertThat(SyncToken.from(" ")).isEqualTo(SyncToken.START);
+    }
+
+    @Test
+    void invalidValuesAreBadRequests() {
+        assertThatThrownBy(() -> SyncToken.from("no es base64!")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> SyncToken.from(encode("123"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> SyncToken.from(encode("1:2:3:4"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> SyncToken.from(encode("abc:2"))).isInstanceOf(BadRequestException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,227 @@
+package ec.edu.ups.icc.fundamentos01.products.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import ec.edu.ups.icc.fundamentos01.products.models.ProductChangeType;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Miles de conexiones SSE inactivas sobre un servidor real: todas deben
+ * quedar registradas (gauge products.changes.subscribers) y recibir el
+ * mismo cambio sin que una conexión ocupe un hilo de Tomcat. Un cliente
+ * que no lee se desconecta por send-timeout sin frenar a los demás.
+ *
+ * La cola por suscriptor es grande para que el cliente que no lee no se
+ * desconecte por cola llena antes de bloquear un envío
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "products.changes.subscriber-queue-size=100000",
+        "products.changes.send-timeout=2000",
+        "products.changes.send-timeout-check=200" })
+class ProductChangeFeedScalingTest {
+
+    private static final int CONNECTIONS = 2000;
+    // Se abren por tandas para no desbordar la cola de aceptación de Tomcat
+    private static final int BATCH = 200;
+    // Suficiente para llenar los buffers de socket de un cliente que no lee
+    private static final int FLOOD_EVENTS = 50_000;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final List<CompletableFuture<?>> streams = new ArrayList<>();
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String token;
+
+    @BeforeEach
+    void connect() throws Exception {
+        clientExecutor = Executors.newFixedThreadPool(8);
+        client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        token = login();
+    }
+
+    @AfterEach
+    void closeStreams() {
+        streams.forEach(stream -> stream.cancel(true));
+        clientExecutor.shutdownNow();
+    }
+
+    @Test
+    void idleSubscribersAllReceiveChange() throws Exception {
+        double baseline = subscribers();
+        double evictions = counter("products.changes.evictions");
+
+        CountDownLatch received = new CountDownLatch(CONNECTIONS);
+        for (int opened = 0; opened < CONNECTIONS; opened += BATCH) {
+            for (int i = 0; i < BATCH; i++) {
+                openStream(new ChangeSubscriber(received, ProductChangeType.UPDATED));
+            }
+            double expected = baseline + opened + BATCH;
+            await().atMost(Duration.ofSeconds(30)).until(() -> subscribers() >= expected);
+        }
+        assertThat(subscribers()).isEqualTo(baseline + CONNECTIONS);
+
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangeType.UPDATED, 1L));
+
+        assertThat(received.await(30, TimeUnit.SECONDS))
+                .as("suscriptores sin el evento: %d", received.getCount())
+                .isTrue();
+        assertThat(counter("products.changes.evictions")).isEqualTo(evictions);
+    }
+
+    @Test
+    void clientThatNeverReadsIsDisconnectedBySendTimeout() throws Exception {
+        double baseline = subscribers();
+        double sendTimeouts = counter("products.changes.send-timeouts");
+
+        CountDownLatch healthyReceived = new CountDownLatch(1);
+        openStream(new ChangeSubscriber(healthyReceived, ProductChangeType.DELETED));
+        try (Socket stalled = openStalledStream()) {
+            await().atMost(Duration.ofSeconds(10)).until(() -> subscribers() >= baseline + 2);
+
+            // El envío al cliente que no lee se bloquea al llenarse el socket
+            for (int i = 0; i < FLOOD_EVENTS; i++) {
+                eventPublisher.publishEvent(new ProductChangedEvent(ProductChangeType.UPDATED, (long) i));
+            }
+            await().atMost(Duration.ofSeconds(30)).until(() -> subscribers() <= baseline + 1);
+            assertThat(counter("products.changes.send-timeouts")).isEqualTo(sendTimeouts + 1);
+
+            // El otro cliente sigue recibiendo
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangeType.DELETED, 1L));
+            assertThat(healthyReceived.await(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(subscribers()).isEqualTo(baseline + 1);
+        }
+    }
+
+    private void openStream(ChangeSubscriber subscriber) {
+        HttpRequest request = HttpRequest.newBuilder(url("/api/products/changes/stream"))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "text/event-stream")
+                .build();
+        streams.add(client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber)));
+    }
+
+    /**
+     * Suscripción por socket que nunca lee la respuesta (buffer de recepción mínimo)
+     */
+    private Socket openStalledStream() throws Exception {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(1024);
+        socket.connect(new InetSocketAddress("localhost", port), 10_000);
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /api/products/changes/stream HTTP/1.1\r\n"
+                + "Host: localhost:" + port + "\r\n"
+                + "Authorization: Bearer " + token + "\r\n"
+                + "Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+
+    private String login() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(url("/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"admin@ups.edu.ec\",\"password\":\"admin123\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return jsonMapper.readTree(response.body()).get("token").asString();
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("products.changes.subscribers").gauge().value();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private URI url(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /**
+     * Cuenta una vez por conexión el primer evento del tipo esperado
+     */
+    private static final class ChangeSubscriber implements Flow.Subscriber<String> {
+        private final CountDownLatch received;
+        private final String eventLine;
+        private boolean counted;
+
+        private ChangeSubscriber(CountDownLatch received, ProductChangeType type) {
+            this.received = received;
+            this.eventLine = "event:" + type.value();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!counted && line.equals(eventLine)) {
+                counted = true;
+                received.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}